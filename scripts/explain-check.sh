@@ -0,0 +1,25 @@
+#!/bin/bash
+# Checks that the repository queries are served by indexes: applies the migrations to a local
+# PostgreSQL database, seeds it (~1M tasks, once) and runs EXPLAIN on every query, failing when
+# a plan reads users, projects, tasks or tombstones with a sequential scan.
+# Connects with DB_HOST, DB_PORT, DB_NAME, DB_USERNAME and DB_PASSWORD (as in .env.example).
+# The seed stays in the database; point it at a scratch database, not one you work with.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+export PGHOST="${DB_HOST:-localhost}"
+export PGPORT="${DB_PORT:-5432}"
+export PGDATABASE="${DB_NAME:-taskmanager_explain}"
+export PGUSER="${DB_USERNAME:-postgres}"
+export PGPASSWORD="${DB_PASSWORD:-postgres}"
+
+PSQL="psql -X -q -v ON_ERROR_STOP=1"
+
+# The migrations are idempotent; the application baselines this database on its next start
+for migration in $(ls src/main/resources/db/migration/V*__*.sql | sort -V); do
+    $PSQL -f "$migration" > /dev/null
+done
+
+$PSQL -f scripts/explain/seed.sql
+$PSQL -f scripts/explain/check.sql
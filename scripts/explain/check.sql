@@ -0,0 +1,144 @@
+-- EXPLAINs the SQL behind the repository queries (as Hibernate renders it, with representative
+-- arguments) and fails when a plan reads one of the seeded tables with a sequential scan.
+-- Keep in step with TaskRepository, ProjectRepository, TombstoneRepository, the keyset queries
+-- (KeysetQuerySupport) and the export (TaskExportService).
+DO $$
+DECLARE
+    seed_user BIGINT;
+    seed_project BIGINT;
+    seed_task BIGINT;
+    q RECORD;
+    plan JSON;
+    scanned TEXT;
+    failures INT := 0;
+BEGIN
+    SELECT id INTO seed_user FROM users WHERE email = 'explain-1000@example.com';
+    IF seed_user IS NULL THEN
+        RAISE EXCEPTION 'Database not seeded, run scripts/explain/seed.sql first';
+    END IF;
+    SELECT id INTO seed_project FROM projects WHERE user_id = seed_user ORDER BY id LIMIT 1;
+    SELECT id INTO seed_task FROM tasks WHERE project_id = seed_project ORDER BY id LIMIT 1;
+
+    FOR q IN SELECT name, format(sql, seed_user, seed_project, seed_task) AS sql FROM (VALUES
+        -- TaskRepository
+        ('TaskRepository.findResponsesByProjectId',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s ORDER BY id'),
+        ('TaskRepository.findResponsesByProjectId (page by title)',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s ORDER BY title LIMIT 10 OFFSET 100'),
+        ('TaskRepository.findResponsesByProjectId (count)',
+         'SELECT COUNT(id) FROM tasks WHERE project_id = %2$s'),
+        ('TaskRepository.findResponsesByProjectIdAndCompleted',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s AND completed = false ORDER BY id LIMIT 10'),
+        ('TaskRepository.findResponsesByProjectIdAndCompleted (count)',
+         'SELECT COUNT(id) FROM tasks WHERE project_id = %2$s AND completed = false'),
+        ('TaskRepository.findKeysetPage (id)',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s AND id > %3$s ORDER BY id LIMIT 51'),
+        ('TaskRepository.findKeysetPage (title)',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s '
+         'AND (title > ''Fix'' OR (title = ''Fix'' AND id > %3$s)) ORDER BY title, id LIMIT 51'),
+        ('TaskRepository.findKeysetPage (dueDate)',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s '
+         'AND (COALESCE(due_date, DATE ''9999-12-31'') > CURRENT_DATE '
+         'OR (COALESCE(due_date, DATE ''9999-12-31'') = CURRENT_DATE AND id > %3$s)) '
+         'ORDER BY COALESCE(due_date, DATE ''9999-12-31''), id LIMIT 51'),
+        ('TaskRepository.findKeysetPage (completed)',
+         'SELECT id, title, due_date, completed, project_id FROM tasks WHERE project_id = %2$s '
+         'AND (completed > false OR (completed = false AND id > %3$s)) ORDER BY completed, id LIMIT 51'),
+        ('TaskRepository.findFirstTasksPerProject',
+         'SELECT pt.id, pt.title, pt.due_date, pt.completed, p.id FROM projects p JOIN LATERAL (SELECT t.id, t.title, '
+         't.due_date, t.completed FROM tasks t WHERE t.project_id = p.id ORDER BY t.id FETCH FIRST 5 ROWS ONLY) pt ON true '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL ORDER BY p.id, pt.id'),
+        ('TaskRepository.findOwnedResponseById',
+         'SELECT t.id, t.title, t.due_date, t.completed, t.project_id FROM tasks t JOIN projects p ON p.id = t.project_id '
+         'WHERE t.id = %3$s AND p.user_id = %1$s AND p.deleted_at IS NULL'),
+        ('TaskRepository.findOwnedByIds',
+         'SELECT t.* FROM tasks t JOIN projects p ON p.id = t.project_id WHERE t.id IN (%3$s, %3$s + 1, %3$s + 2) AND p.user_id = %1$s AND p.deleted_at IS NULL'),
+        ('TaskRepository.findDueBetween',
+         'SELECT t.id, t.title, t.due_date, t.completed, t.project_id FROM tasks t JOIN projects p ON p.id = t.project_id '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND t.completed IN (false, true) AND t.due_date BETWEEN CURRENT_DATE AND CURRENT_DATE + 6 '
+         'ORDER BY t.due_date, t.id LIMIT 10'),
+        ('TaskRepository.findDueBetween (count)',
+         'SELECT COUNT(t.id) FROM tasks t JOIN projects p ON p.id = t.project_id '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND t.completed IN (false) AND t.due_date BETWEEN CURRENT_DATE AND CURRENT_DATE + 6'),
+        ('TaskRepository.findAllDueBetween',
+         'SELECT t.id, t.title, t.due_date, t.completed, t.project_id FROM tasks t JOIN projects p ON p.id = t.project_id '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND t.completed IN (false, true) AND t.due_date BETWEEN CURRENT_DATE AND CURRENT_DATE + 61 '
+         'ORDER BY t.due_date, t.id LIMIT 2001'),
+        ('TaskRepository.findOverdue',
+         'SELECT t.id, t.title, t.due_date, t.completed, t.project_id FROM tasks t JOIN projects p ON p.id = t.project_id '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND t.completed = false AND t.due_date < CURRENT_DATE ORDER BY t.due_date, t.id LIMIT 10'),
+        ('TaskRepository.findChangedSince',
+         'SELECT t.id, t.title, t.description, t.due_date, t.completed, t.project_id, t.updated_at FROM tasks t '
+         'JOIN projects p ON p.id = t.project_id WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND (t.updated_at > now() - INTERVAL ''1 day'' '
+         'OR (t.updated_at = now() - INTERVAL ''1 day'' AND t.id > %3$s)) ORDER BY t.updated_at, t.id LIMIT 1001'),
+        ('TaskRepository.searchInProject',
+         'SELECT t.* FROM tasks t WHERE t.project_id = %2$s AND to_tsvector(''simple'', coalesce(t.title, '''') || '' '' '
+         '|| coalesce(t.description, '''')) @@ to_tsquery(''simple'', ''review:*'') ORDER BY t.id LIMIT 10'),
+        ('TaskRepository.searchInUserProjects',
+         'SELECT t.* FROM tasks t JOIN projects p ON p.id = t.project_id WHERE p.user_id = %1$s AND p.deleted_at IS NULL AND '
+         'to_tsvector(''simple'', coalesce(t.title, '''') || '' '' || coalesce(t.description, '''')) '
+         '@@ to_tsquery(''simple'', ''review:* & budget:*'') LIMIT 10'),
+        ('TaskRepository.deleteChunkByProjectId',
+         'DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE project_id = %2$s LIMIT 5000)'),
+        ('TaskExportService (all projects)',
+         'SELECT t.id, t.title, t.description, t.due_date, t.completed, t.project_id FROM tasks t '
+         'JOIN projects p ON p.id = t.project_id WHERE p.user_id = %1$s AND p.deleted_at IS NULL ORDER BY t.project_id, t.id'),
+        -- ProjectRepository
+        ('ProjectRepository.findResponsesByUserId',
+         'SELECT id, title, user_id FROM projects WHERE user_id = %1$s AND deleted_at IS NULL ORDER BY id'),
+        ('ProjectRepository.findResponsesByUserId (page by title)',
+         'SELECT id, title, user_id FROM projects WHERE user_id = %1$s AND deleted_at IS NULL ORDER BY title LIMIT 10'),
+        ('ProjectRepository.countByUserId',
+         'SELECT COUNT(id) FROM projects WHERE user_id = %1$s AND deleted_at IS NULL'),
+        ('ProjectRepository.findKeysetPage (title)',
+         'SELECT id, title, user_id FROM projects WHERE user_id = %1$s AND deleted_at IS NULL '
+         'AND (title > ''Project 1'' OR (title = ''Project 1'' AND id > %2$s)) ORDER BY title, id LIMIT 21'),
+        ('ProjectRepository.findByIdInAndUserId',
+         'SELECT * FROM projects WHERE id IN (%2$s, %2$s + 1) AND user_id = %1$s AND deleted_at IS NULL'),
+        ('ProjectRepository.findSummariesByUserId',
+         'SELECT p.id, p.title, p.description, p.total_tasks, p.completed_tasks, COUNT(t.id) FROM projects p '
+         'LEFT JOIN tasks t ON t.project_id = p.id AND t.completed = false AND t.due_date < CURRENT_DATE '
+         'WHERE p.user_id = %1$s AND p.deleted_at IS NULL GROUP BY p.id, p.title, p.description, p.total_tasks, p.completed_tasks ORDER BY p.id'),
+        ('ProjectRepository.findListStampByUserId',
+         'SELECT COUNT(id), COALESCE(MAX(id), 0), COALESCE(SUM(version), 0) FROM projects WHERE user_id = %1$s AND deleted_at IS NULL'),
+        ('ProjectRepository.findChangedSince',
+         'SELECT id, title, description, user_id, updated_at FROM projects WHERE user_id = %1$s AND deleted_at IS NULL '
+         'AND (updated_at > now() - INTERVAL ''1 day'' OR (updated_at = now() - INTERVAL ''1 day'' AND id > %2$s)) '
+         'ORDER BY updated_at, id LIMIT 1001'),
+        ('ProjectRepository.findDeletedIds',
+         'SELECT id FROM projects WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT 10'),
+        ('ProjectRepository.findMaxId',
+         'SELECT COALESCE(MAX(id), 0) FROM projects'),
+        ('ProjectRepository.reconcileTaskCounters (one batch)',
+         'UPDATE projects p SET total_tasks = c.total, completed_tasks = c.completed '
+         'FROM (SELECT p2.id, COUNT(t.id) AS total, COUNT(t.id) FILTER (WHERE t.completed) AS completed '
+         'FROM projects p2 LEFT JOIN tasks t ON t.project_id = p2.id WHERE p2.id > %2$s AND p2.id <= %2$s + 500 GROUP BY p2.id) c '
+         'WHERE p.id = c.id AND (p.total_tasks <> c.total OR p.completed_tasks <> c.completed)'),
+        ('ProjectRepositoryCustom.adjustTaskCounters',
+         'UPDATE projects SET total_tasks = total_tasks + 1, completed_tasks = completed_tasks + 0, '
+         'task_stamp = task_stamp + 1 WHERE id = %2$s'),
+        -- TombstoneRepository
+        ('TombstoneRepository.findChangedSince',
+         'SELECT * FROM tombstones WHERE user_id = %1$s AND (deleted_at > now() - INTERVAL ''1 day'' '
+         'OR (deleted_at = now() - INTERVAL ''1 day'' AND id > 0)) ORDER BY deleted_at, id LIMIT 1001'),
+        ('TombstoneRepository.deleteDeletedBefore',
+         'DELETE FROM tombstones WHERE deleted_at < now() - INTERVAL ''30 days''')
+    ) AS queries(name, sql)
+    LOOP
+        EXECUTE 'EXPLAIN (FORMAT JSON) ' || q.sql INTO plan;
+        SELECT string_agg(DISTINCT relation #>> '{}', ', ') INTO scanned
+        FROM jsonb_path_query(plan::jsonb, 'strict $.**?(@."Node Type" == "Seq Scan")."Relation Name"') AS relation
+        WHERE relation #>> '{}' IN ('users', 'projects', 'tasks', 'tombstones');
+
+        IF scanned IS NULL THEN
+            RAISE NOTICE 'ok    %', q.name;
+        ELSE
+            RAISE WARNING 'FAIL  % (sequential scan on %)', q.name, scanned;
+            failures := failures + 1;
+        END IF;
+    END LOOP;
+
+    IF failures > 0 THEN
+        RAISE EXCEPTION '% queries read a large table sequentially', failures;
+    END IF;
+END $$;
@@ -0,0 +1,62 @@
+-- Seeds enough rows that the planner prefers indexes wherever one applies:
+-- 2,000 users x 20 projects x 25 tasks (1,000,000 tasks) and 100,000 tombstones.
+-- Seeded users are explain-<n>@example.com (password 123456). Skipped when already seeded.
+DO $$
+DECLARE
+    first_project BIGINT;
+    first_task BIGINT;
+    first_tombstone BIGINT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM users WHERE email = 'explain-1@example.com') THEN
+        RAISE NOTICE 'Already seeded';
+        RETURN;
+    END IF;
+
+    INSERT INTO users (email, password)
+    SELECT 'explain-' || n || '@example.com', '$2a$10$bgYwAUZ8b6QfOvwd3wshIuJADuIfESOkXYN9QYAd4KuvxOj.UwTs2'
+    FROM generate_series(1, 2000) n;
+
+    SELECT COALESCE(MAX(id), 0) + 1 INTO first_project FROM projects;
+    INSERT INTO projects (id, title, description, user_id, updated_at)
+    SELECT first_project + ROW_NUMBER() OVER (ORDER BY u.id, n) - 1,
+           'Project ' || n, 'Seeded project ' || n, u.id,
+           now() - random() * INTERVAL '90 days'
+    FROM users u CROSS JOIN generate_series(1, 20) n
+    WHERE u.email LIKE 'explain-%';
+
+    SELECT COALESCE(MAX(id), 0) + 1 INTO first_task FROM tasks;
+    INSERT INTO tasks (id, title, description, due_date, completed, updated_at, project_id)
+    SELECT first_task + ROW_NUMBER() OVER (ORDER BY p.id, n) - 1,
+           (ARRAY['Buy', 'Call', 'Review', 'Write', 'Fix', 'Plan', 'Deploy', 'Test'])[1 + floor(random() * 8)::int] || ' ' ||
+           (ARRAY['milk', 'report', 'client', 'invoice', 'release', 'budget', 'slides', 'backlog'])[1 + floor(random() * 8)::int] ||
+           ' ' || n,
+           CASE WHEN random() < 0.5 THEN 'Seeded task ' || n END,
+           CASE WHEN random() < 0.2 THEN NULL ELSE CURRENT_DATE + (floor(random() * 180)::int - 90) END,
+           random() < 0.4,
+           now() - random() * INTERVAL '90 days',
+           p.id
+    FROM projects p CROSS JOIN generate_series(1, 25) n
+    WHERE p.id >= first_project;
+
+    -- Spread over the retention period: the daily purge keeps older ones to about a day's worth
+    SELECT COALESCE(MAX(id), 0) + 1 INTO first_tombstone FROM tombstones;
+    INSERT INTO tombstones (id, entity_type, entity_id, project_id, user_id, deleted_at)
+    SELECT first_tombstone + n - 1, 'task', first_task + 2000000 + n, first_project + (n % 40000), u.id,
+           now() - random() * INTERVAL '31 days'
+    FROM generate_series(1, 100000) n
+    JOIN users u ON u.email = 'explain-' || (1 + n % 2000) || '@example.com';
+
+    UPDATE projects p SET total_tasks = c.total, completed_tasks = c.completed
+    FROM (SELECT project_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE completed) AS completed
+          FROM tasks WHERE project_id >= first_project GROUP BY project_id) c
+    WHERE p.id = c.project_id;
+
+    PERFORM setval('projects_seq', (SELECT MAX(id) FROM projects) + 50);
+    PERFORM setval('tasks_seq', (SELECT MAX(id) FROM tasks) + 50);
+    PERFORM setval('tombstones_seq', (SELECT MAX(id) FROM tombstones) + 50);
+END $$;
+
+ANALYZE users;
+ANALYZE projects;
+ANALYZE tasks;
+ANALYZE tombstones;
@@ -0,0 +1,23 @@
+#!/bin/bash
+# Runs the same load test with platform threads and with virtual threads and compares them.
+# Both runs boot the application on their own embedded PostgreSQL, so requests block on real
+# JDBC round trips (H2 would run them in-process on the request thread). The virtual run traces
+# carrier threads pinned by a monitor (-Djdk.tracePinnedThreads=short) and the count is reported.
+# Needs a Java 21 JDK on the PATH. Extra arguments go to both runs,
+# e.g. scripts/loadtest-threads.sh --concurrency 256 --duration 120
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+ARGS="$*"
+PINNING_LOG=target/loadtest/virtual-threads.log
+mkdir -p target/loadtest
+
+mvn -q -Pjava21,loadtest test-compile exec:exec -Dloadtest.args="--name platform-threads --database postgres $ARGS"
+mvn -q -Pjava21,loadtest test-compile exec:exec -Dloadtest.jvmArgs=-Djdk.tracePinnedThreads=short \
+    -Dloadtest.args="--name virtual-threads --database postgres --profiles loadtest-postgres,virtual $ARGS" \
+    | tee "$PINNING_LOG"
+mvn -q -Pjava21,loadtest exec:exec \
+    -Dloadtest.args="--compare target/loadtest/platform-threads.json target/loadtest/virtual-threads.json"
+
+PINNED=$(grep -c '<== monitors' "$PINNING_LOG" || true)
+echo "Pinned virtual threads reported during the virtual run: $PINNED (stacks in $PINNING_LOG)"
@@ -0,0 +1,51 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.models.Project;
+import com.taskmanager.models.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic fixtures shaped like real data: titles of a few words, descriptions of a
+ * sentence or two, a due date on most tasks and roughly a third of them completed.
+ */
+final class BenchmarkData {
+    
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    
+    private BenchmarkData() {
+    }
+    
+    static List<Task> tasks(int count) {
+        Project project = new Project();
+        project.setId(7L);
+        project.setTitle("Benchmark project");
+        
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i + " prepare quarterly report");
+            task.setDescription(i % 4 == 0 ? null
+                    : "Collect the figures from every team, check them against last quarter and write the summary #" + i);
+            task.setDueDate(i % 5 == 0 ? null : START.plusDays(i % 365));
+            task.setCompleted(i % 3 == 0);
+            task.setProject(project);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+    
+    static PageResponse<TaskResponse> taskPage(int size) {
+        List<TaskResponse> content = new ArrayList<>(size);
+        for (Task task : tasks(size)) {
+            content.add(new TaskResponse(task.getId(), task.getTitle(), task.getDescription(),
+                    task.getDueDate(), task.getCompleted(), task.getProject().getId()));
+        }
+        return new PageResponse<>(content, 0, size, size * 10L, 10, true, false);
+    }
+}
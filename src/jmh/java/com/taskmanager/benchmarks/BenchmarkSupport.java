@@ -0,0 +1,71 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.security.JwtUtil;
+import com.taskmanager.security.PrincipalCache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Wires Spring components by hand so benchmarks run without an application context.
+ */
+final class BenchmarkSupport {
+    
+    static final String SECRET = "yourSecretKeyMustBeAtLeast256BitsLongForHS256AlgorithmToWorkProperly";
+    
+    private BenchmarkSupport() {
+    }
+    
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set field " + name, e);
+        }
+    }
+    
+    static Object invoke(Object target, String name, Class<?>[] parameterTypes, Object... args) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot invoke " + name, e);
+        }
+    }
+    
+    /**
+     * Resolves a (possibly private) method once so benchmarks don't pay for the lookup on every call.
+     */
+    static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return method;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot find method " + name, e);
+        }
+    }
+    
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", SECRET);
+        setField(jwtUtil, "expiration", 86400000L);
+        init(jwtUtil);
+        return jwtUtil;
+    }
+    
+    static PrincipalCache principalCache(long ttl) {
+        PrincipalCache principalCache = new PrincipalCache();
+        setField(principalCache, "maxSize", 10000);
+        setField(principalCache, "ttl", ttl);
+        init(principalCache);
+        return principalCache;
+    }
+    
+    static void init(Object target) {
+        invoke(target, "init", new Class<?>[0]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.security.AuthenticatedUser;
+import com.taskmanager.security.JwtAuthenticationFilter;
+import com.taskmanager.security.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole JwtAuthenticationFilter pass as a request sees it: header parsing, principal
+ * resolution and security context population. Covers a principal cache hit, a miss that
+ * verifies the signature, and a legacy token without the user id claim that falls back to
+ * a (stubbed, in-memory) UserDetailsService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private static final String EMAIL = "bench@example.com";
+    
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+    
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest legacyRequest;
+    private MockHttpServletResponse response;
+    
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil();
+        UserDetailsService userDetailsService = email -> new AuthenticatedUser(42L, email, "{noop}secret");
+        
+        cachingFilter = filter(jwtUtil, userDetailsService, 300000L);
+        // A zero TTL makes every entry expire on arrival, so each request verifies the token
+        uncachedFilter = filter(jwtUtil, userDetailsService, 0L);
+        
+        request = requestWithToken(jwtUtil.generateToken(EMAIL, 42L));
+        legacyRequest = requestWithToken(Jwts.builder()
+                .subject(EMAIL)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000L))
+                .signWith(Keys.hmacShaKeyFor(BenchmarkSupport.SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact());
+        response = new MockHttpServletResponse();
+    }
+    
+    @Benchmark
+    public Authentication cachedPrincipal() throws ServletException, IOException {
+        return authenticate(cachingFilter, request);
+    }
+    
+    @Benchmark
+    public Authentication verifiedToken() throws ServletException, IOException {
+        return authenticate(uncachedFilter, request);
+    }
+    
+    @Benchmark
+    public Authentication legacyTokenLookup() throws ServletException, IOException {
+        return authenticate(uncachedFilter, legacyRequest);
+    }
+    
+    private Authentication authenticate(JwtAuthenticationFilter filter, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+    
+    private static JwtAuthenticationFilter filter(JwtUtil jwtUtil, UserDetailsService userDetailsService, long cacheTtl) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        BenchmarkSupport.setField(filter, "jwtUtil", jwtUtil);
+        BenchmarkSupport.setField(filter, "userDetailsService", userDetailsService);
+        BenchmarkSupport.setField(filter, "principalCache", BenchmarkSupport.principalCache(cacheTtl));
+        BenchmarkSupport.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        BenchmarkSupport.init(filter);
+        return filter;
+    }
+    
+    private static MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the individual JwtUtil operations: issuing a token at login/register and the
+ * read-side calls still used outside the filter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    
+    private static final String EMAIL = "bench@example.com";
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtUtil = BenchmarkSupport.jwtUtil();
+        token = jwtUtil.generateToken(EMAIL, 42L);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, 42L);
+    }
+    
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+    
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+}
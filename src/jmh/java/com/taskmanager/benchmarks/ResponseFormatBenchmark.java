@@ -0,0 +1,100 @@
+package com.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per response and bytes on the wire for each response format of a PageResponse<TaskResponse>:
+ * <ul>
+ *   <li>{@code json-baseline}: the mapper as Spring Boot configured it before Blackbird, one writeValueAsBytes per call</li>
+ *   <li>{@code json}: Blackbird and a pre-built writer, as served now</li>
+ *   <li>{@code json-gzip}: the same, gzip-compressed like responses above server.compression.min-response-size</li>
+ *   <li>{@code smile}, {@code cbor}: the binary formats</li>
+ * </ul>
+ * The encoded size of each combination is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+    
+    @Param({"json-baseline", "json", "json-gzip", "smile", "cbor"})
+    public String format;
+    
+    @Param({"100", "1000"})
+    public int pageSize;
+    
+    private PageResponse<TaskResponse> page;
+    private ObjectMapper baselineMapper;
+    private ObjectWriter writer;
+    private boolean gzip;
+    
+    @Setup
+    public void setup() throws IOException {
+        page = BenchmarkData.taskPage(pageSize);
+        baselineMapper = Jackson2ObjectMapperBuilder.json().build();
+        gzip = format.equals("json-gzip");
+        
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+        JavaType pageType = mapper.getTypeFactory().constructParametricType(PageResponse.class, TaskResponse.class);
+        writer = mapper.writerFor(pageType);
+    }
+    
+    @TearDown(Level.Trial)
+    public void reportSize() throws IOException {
+        System.out.printf("%n%s, %d tasks: %d bytes per response%n", format, pageSize, serialize().length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (format.equals("json-baseline")) {
+            return baselineMapper.writeValueAsBytes(page);
+        }
+        if (!gzip) {
+            return writer.writeValueAsBytes(page);
+        }
+        
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(pageSize * 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            writer.writeValue(out, page);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.models.Task;
+import com.taskmanager.services.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a page of tasks through TaskService.convertToResponse. The method
+ * is private, so it's resolved once by reflection; the call overhead is part of every sample.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMappingBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+    
+    private TaskService taskService;
+    private Method convertToResponse;
+    private List<Task> tasks;
+    
+    @Setup
+    public void setup() {
+        taskService = new TaskService();
+        convertToResponse = BenchmarkSupport.method(TaskService.class, "convertToResponse", Task.class);
+        tasks = BenchmarkData.tasks(pageSize);
+    }
+    
+    @Benchmark
+    public List<TaskResponse> convertPage() throws ReflectiveOperationException {
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            responses.add((TaskResponse) convertToResponse.invoke(taskService, task));
+        }
+        return responses;
+    }
+}
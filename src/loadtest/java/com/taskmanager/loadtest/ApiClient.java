@@ -0,0 +1,88 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin blocking JSON client over java.net.http, shared by all workers.
+ */
+final class ApiClient {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    Response get(String path, String token) throws IOException, InterruptedException {
+        return send("GET", path, token, null);
+    }
+    
+    Response post(String path, String token, Object body) throws IOException, InterruptedException {
+        return send("POST", path, token, body);
+    }
+    
+    Response put(String path, String token, Object body) throws IOException, InterruptedException {
+        return send("PUT", path, token, body);
+    }
+    
+    Response delete(String path, String token) throws IOException, InterruptedException {
+        return send("DELETE", path, token, null);
+    }
+    
+    <T> T read(Response response, Class<T> type) throws IOException {
+        return objectMapper.readValue(response.body(), type);
+    }
+    
+    <T> T read(Response response, TypeReference<T> type) throws IOException {
+        return objectMapper.readValue(response.body(), type);
+    }
+    
+    private Response send(String method, String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        return new Response(response.statusCode(), response.body());
+    }
+    
+    record Response(int status, byte[] body) {
+        
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+        
+        Response requireOk(String what) throws IOException {
+            if (!ok()) {
+                throw new IOException(what + " failed with HTTP " + status + ": " + new String(body));
+            }
+            return this;
+        }
+    }
+}
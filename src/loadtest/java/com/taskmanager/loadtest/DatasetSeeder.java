@@ -0,0 +1,102 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.taskmanager.dtos.LoginResponse;
+import com.taskmanager.dtos.ProjectRequest;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.RegisterRequest;
+import com.taskmanager.dtos.TaskBatchRequest;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.dtos.TaskResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the dataset through the public API: users register, create their projects and
+ * fill them with tasks through the batch endpoint. Emails carry a run id so a run against
+ * a persistent database never collides with an earlier one.
+ */
+final class DatasetSeeder {
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final String PASSWORD = "loadtest-password";
+    
+    private static final String[] VERBS = {"Prepare", "Review", "Update", "Fix", "Plan", "Write", "Call", "Check"};
+    private static final String[] SUBJECTS = {"quarterly report", "release notes", "budget", "onboarding guide",
+            "customer feedback", "invoice", "roadmap", "test plan", "meeting agenda", "backlog"};
+    
+    private final ApiClient client;
+    private final LoadTestOptions options;
+    
+    DatasetSeeder(ApiClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+    
+    List<UserSession> seed() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.users(), 8));
+        try {
+            List<Future<UserSession>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users(); i++) {
+                String email = "loadtest-" + runId + "-" + i + "@example.com";
+                futures.add(executor.submit(() -> seedUser(email)));
+            }
+            
+            List<UserSession> sessions = new ArrayList<>();
+            for (Future<UserSession> future : futures) {
+                sessions.add(future.get());
+            }
+            return sessions;
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private UserSession seedUser(String email) throws IOException, InterruptedException {
+        LoginResponse registered = client.read(
+                client.post("/auth/register", null, new RegisterRequest(email, PASSWORD)).requireOk("Register"),
+                LoginResponse.class);
+        String token = registered.getToken();
+        
+        List<Long> projectIds = new ArrayList<>();
+        List<UserSession.SeededTask> seededTasks = new ArrayList<>();
+        for (int p = 0; p < options.projectsPerUser(); p++) {
+            ProjectResponse project = client.read(
+                    client.post("/projects", token, new ProjectRequest("Project " + p, "Seeded for load testing"))
+                            .requireOk("Create project"),
+                    ProjectResponse.class);
+            projectIds.add(project.getId());
+            
+            for (int created = 0; created < options.tasksPerProject(); created += BATCH_SIZE) {
+                int size = Math.min(BATCH_SIZE, options.tasksPerProject() - created);
+                List<TaskRequest> tasks = new ArrayList<>(size);
+                for (int t = 0; t < size; t++) {
+                    tasks.add(randomTask(project.getId()));
+                }
+                List<TaskResponse> saved = client.read(
+                        client.post("/tasks/batch", token, new TaskBatchRequest(tasks)).requireOk("Create tasks"),
+                        new TypeReference<List<TaskResponse>>() { });
+                saved.forEach(task -> seededTasks.add(new UserSession.SeededTask(task.getId(), task.getProjectId())));
+            }
+        }
+        
+        return new UserSession(email, PASSWORD, token, projectIds, seededTasks);
+    }
+    
+    static TaskRequest randomTask(Long projectId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String title = VERBS[random.nextInt(VERBS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)];
+        String description = random.nextInt(4) == 0 ? null
+                : "Follow up on the " + SUBJECTS[random.nextInt(SUBJECTS.length)] + " with the team before the deadline";
+        LocalDate dueDate = random.nextInt(5) == 0 ? null : LocalDate.now().plusDays(random.nextInt(-30, 90));
+        return new TaskRequest(title, description, dueDate, random.nextInt(3) == 0, projectId);
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskmanager.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-worker latency samples grouped by endpoint. Workers never share a recorder, so recording
+ * is a plain array append; recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+    
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+    
+    void record(String endpoint, long nanos, boolean ok) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, ok);
+    }
+    
+    static Map<String, Samples> merge(Iterable<LatencyRecorder> recorders) {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.samples.forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+    
+    static final class Samples {
+        
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+        
+        void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+        
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+        
+        int count() {
+            return size;
+        }
+        
+        long errors() {
+            return errors;
+        }
+        
+        /**
+         * Nearest-rank percentiles in milliseconds, in the order requested.
+         */
+        double[] percentilesMillis(double... percentiles) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            double[] result = new double[percentiles.length];
+            for (int i = 0; i < percentiles.length; i++) {
+                if (size == 0) {
+                    continue;
+                }
+                int rank = (int) Math.ceil(percentiles[i] / 100.0 * size);
+                result[i] = sorted[Math.max(0, Math.min(size, rank) - 1)] / 1_000_000.0;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.taskmanager.TaskManagerApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test. Boots the application in-process on a random port with the
+ * "loadtest" profile (in-memory H2 in PostgreSQL mode), or with --database postgres on an
+ * embedded PostgreSQL migrated by Flyway, unless --url points at a running instance. Seeds
+ * users/projects/tasks through the API, then drives a mixed read/write workload from
+ * --concurrency closed-loop workers and reports per-endpoint percentiles.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--name baseline --concurrency 64 --duration 60"
+ * mvn -Ploadtest exec:exec -Dloadtest.args="--compare target/loadtest/baseline.json target/loadtest/candidate.json"
+ * </pre>
+ */
+public final class LoadTest {
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.compareMode()) {
+            LoadTestReport.compare(options.compareBaseline(), options.compareCurrent());
+            return;
+        }
+        
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        
+        try {
+            if (baseUrl == null) {
+                List<String> appArgs = new ArrayList<>(List.of(
+                        "--spring.profiles.active=" + options.profiles(), "--server.port=0"));
+                if (options.embeddedPostgres()) {
+                    // A fresh database per run, so two runs being compared start from the same state
+                    postgres = EmbeddedPostgres.start();
+                    appArgs.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+                    appArgs.add("--spring.datasource.username=postgres");
+                    appArgs.add("--spring.datasource.password=postgres");
+                }
+                context = SpringApplication.run(TaskManagerApplication.class, appArgs.toArray(String[]::new));
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                baseUrl = "http://localhost:" + port;
+            }
+            
+            ApiClient client = new ApiClient(baseUrl);
+            
+            System.out.printf("Seeding %d users x %d projects x %d tasks...%n",
+                    options.users(), options.projectsPerUser(), options.tasksPerProject());
+            List<UserSession> users = new DatasetSeeder(client, options).seed();
+            
+            ObjectNode report = run(options, new Workload(client, options), users);
+            LoadTestReport.print(report);
+            Path file = LoadTestReport.write(report, options.outputDir());
+            System.out.println("Results written to " + file);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+    
+    private static ObjectNode run(LoadTestOptions options, Workload workload, List<UserSession> users)
+            throws InterruptedException {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmupNanos;
+        long endAt = measureFrom + durationNanos;
+        
+        System.out.printf("Running %d workers: %d s warmup, %d s measured, read ratio %.2f%n",
+                options.concurrency(), options.warmupSeconds(), options.durationSeconds(), options.readRatio());
+        
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            UserSession user = users.get(i % users.size());
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            
+            Thread worker = new Thread(() -> {
+                // Samples taken during warmup go to a recorder that is thrown away
+                LatencyRecorder warmup = new LatencyRecorder();
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < endAt) {
+                        workload.step(user, now < measureFrom ? warmup : recorder);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-worker-" + i);
+            workers.add(worker);
+        }
+        
+        Instant measurementStart = Instant.now().plusNanos(warmupNanos);
+        workers.forEach(Thread::start);
+        done.await();
+        
+        // Requests in flight at the deadline finish slightly later, measure the actual window
+        double measuredSeconds = Math.max(1, System.nanoTime() - measureFrom) / 1e9;
+        return LoadTestReport.build(options, measurementStart, measuredSeconds, LatencyRecorder.merge(recorders));
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskmanager.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as --name value pairs.
+ */
+record LoadTestOptions(
+        String baseUrl,
+        String database,
+        String profiles,
+        String name,
+        int users,
+        int projectsPerUser,
+        int tasksPerProject,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        double readRatio,
+        double loginRatio,
+        Path outputDir,
+        Path compareBaseline,
+        Path compareCurrent
+) {
+    
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            if (arg.equals("--compare")) {
+                if (i + 2 >= args.length) {
+                    throw new IllegalArgumentException("--compare needs two result files");
+                }
+                values.put("compare-baseline", args[++i]);
+                values.put("compare-current", args[++i]);
+            } else if (i + 1 < args.length) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        
+        if (values.containsKey("url") && (values.containsKey("profiles") || values.containsKey("database"))) {
+            throw new IllegalArgumentException("--profiles and --database apply to the in-process application, not to --url");
+        }
+        String database = values.getOrDefault("database", "h2");
+        if (!database.equals("h2") && !database.equals("postgres")) {
+            throw new IllegalArgumentException("--database must be h2 or postgres");
+        }
+        
+        double readRatio = Double.parseDouble(values.getOrDefault("read-ratio", "0.9"));
+        if (readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("--read-ratio must be between 0 and 1");
+        }
+        
+        return new LoadTestOptions(
+                values.get("url"),
+                database,
+                values.getOrDefault("profiles", database.equals("postgres") ? "loadtest-postgres" : "loadtest"),
+                values.getOrDefault("name", "run"),
+                Integer.parseInt(values.getOrDefault("users", "20")),
+                Integer.parseInt(values.getOrDefault("projects-per-user", "5")),
+                Integer.parseInt(values.getOrDefault("tasks-per-project", "200")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                readRatio,
+                Double.parseDouble(values.getOrDefault("login-ratio", "0.01")),
+                Path.of(values.getOrDefault("output", "target/loadtest")),
+                values.containsKey("compare-baseline") ? Path.of(values.get("compare-baseline")) : null,
+                values.containsKey("compare-current") ? Path.of(values.get("compare-current")) : null
+        );
+    }
+    
+    boolean compareMode() {
+        return compareBaseline != null;
+    }
+    
+    boolean embeddedPostgres() {
+        return baseUrl == null && database.equals("postgres");
+    }
+}
@@ -0,0 +1,132 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Turns merged samples into per-endpoint throughput and latency percentiles, prints them,
+ * stores them as JSON and compares two stored runs.
+ */
+final class LoadTestReport {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    private static final String ROW_FORMAT = "%-30s %9s %7s %10s %9s %9s %9s %9s%n";
+    
+    private LoadTestReport() {
+    }
+    
+    static ObjectNode build(LoadTestOptions options, Instant startedAt, double measuredSeconds,
+                            Map<String, LatencyRecorder.Samples> samples) {
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("name", options.name());
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", measuredSeconds);
+        
+        ObjectNode settings = report.putObject("options");
+        settings.put("profiles", options.baseUrl() == null ? options.profiles() : "external " + options.baseUrl());
+        settings.put("users", options.users());
+        settings.put("projectsPerUser", options.projectsPerUser());
+        settings.put("tasksPerProject", options.tasksPerProject());
+        settings.put("concurrency", options.concurrency());
+        settings.put("readRatio", options.readRatio());
+        settings.put("loginRatio", options.loginRatio());
+        settings.put("javaVersion", Runtime.version().toString());
+        
+        ObjectNode endpoints = report.putObject("endpoints");
+        LatencyRecorder.Samples total = new LatencyRecorder.Samples();
+        samples.forEach((endpoint, endpointSamples) -> {
+            endpoints.set(endpoint, stats(endpointSamples, measuredSeconds));
+            total.addAll(endpointSamples);
+        });
+        report.set("total", stats(total, measuredSeconds));
+        return report;
+    }
+    
+    static void print(JsonNode report) {
+        System.out.printf("%nRun '%s' (%.0f s measured, %s)%n", report.path("name").asText(),
+                report.path("measuredSeconds").asDouble(), report.path("options").path("profiles").asText());
+        System.out.printf(ROW_FORMAT, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Iterator<Map.Entry<String, JsonNode>> endpoints = report.path("endpoints").fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            printRow(entry.getKey(), entry.getValue());
+        }
+        printRow("TOTAL", report.path("total"));
+    }
+    
+    static Path write(JsonNode report, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Path file = outputDir.resolve(report.path("name").asText() + ".json");
+        MAPPER.writeValue(file.toFile(), report);
+        return file;
+    }
+    
+    /**
+     * Prints throughput and percentile changes of the current run relative to the baseline.
+     */
+    static void compare(Path baselineFile, Path currentFile) throws IOException {
+        JsonNode baseline = MAPPER.readTree(baselineFile.toFile());
+        JsonNode current = MAPPER.readTree(currentFile.toFile());
+        
+        System.out.printf("Comparing '%s' (baseline) with '%s'%n", baseline.path("name").asText(), current.path("name").asText());
+        String format = "%-30s %18s %18s %18s %18s%n";
+        System.out.printf(format, "Endpoint", "Req/s", "p50 ms", "p95 ms", "p99 ms");
+        
+        Iterator<Map.Entry<String, JsonNode>> endpoints = current.path("endpoints").fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            JsonNode before = baseline.path("endpoints").path(entry.getKey());
+            if (!before.isMissingNode()) {
+                printComparison(format, entry.getKey(), before, entry.getValue());
+            }
+        }
+        printComparison(format, "TOTAL", baseline.path("total"), current.path("total"));
+    }
+    
+    private static ObjectNode stats(LatencyRecorder.Samples samples, double measuredSeconds) {
+        double[] percentiles = samples.percentilesMillis(50, 95, 99, 100);
+        ObjectNode stats = MAPPER.createObjectNode();
+        stats.put("requests", samples.count());
+        stats.put("errors", samples.errors());
+        stats.put("throughput", round(samples.count() / measuredSeconds));
+        stats.put("p50Ms", round(percentiles[0]));
+        stats.put("p95Ms", round(percentiles[1]));
+        stats.put("p99Ms", round(percentiles[2]));
+        stats.put("maxMs", round(percentiles[3]));
+        return stats;
+    }
+    
+    private static void printRow(String endpoint, JsonNode stats) {
+        System.out.printf(ROW_FORMAT, endpoint,
+                stats.path("requests").asText(), stats.path("errors").asText(), stats.path("throughput").asText(),
+                stats.path("p50Ms").asText(), stats.path("p95Ms").asText(), stats.path("p99Ms").asText(),
+                stats.path("maxMs").asText());
+    }
+    
+    private static void printComparison(String format, String endpoint, JsonNode before, JsonNode after) {
+        System.out.printf(format, endpoint,
+                change(before, after, "throughput"), change(before, after, "p50Ms"),
+                change(before, after, "p95Ms"), change(before, after, "p99Ms"));
+    }
+    
+    private static String change(JsonNode before, JsonNode after, String field) {
+        double previous = before.path(field).asDouble();
+        double now = after.path(field).asDouble();
+        String percent = previous == 0 ? "n/a" : String.format("%+.1f%%", (now - previous) * 100.0 / previous);
+        return String.format("%.1f (%s)", now, percent);
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.taskmanager.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * A seeded user as the workers see it. Seeded tasks are only read and updated, never deleted,
+ * so concurrent workers on the same user can't trip over each other; tasks created during the
+ * run are queued here and each one is deleted by at most one worker.
+ */
+final class UserSession {
+    
+    final String email;
+    final String password;
+    volatile String token;
+    final List<Long> projectIds;
+    final List<SeededTask> seededTasks;
+    final ConcurrentLinkedDeque<Long> createdTaskIds = new ConcurrentLinkedDeque<>();
+    
+    UserSession(String email, String password, String token, List<Long> projectIds, List<SeededTask> seededTasks) {
+        this.email = email;
+        this.password = password;
+        this.token = token;
+        this.projectIds = projectIds;
+        this.seededTasks = seededTasks;
+    }
+    
+    record SeededTask(Long id, Long projectId) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.taskmanager.loadtest;
+
+import com.taskmanager.dtos.LoginRequest;
+import com.taskmanager.dtos.LoginResponse;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.dtos.TaskResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The request mix. Each step picks a login, a read or a write according to the configured
+ * ratios, then a weighted endpoint within that group. Endpoints are reported by route
+ * template so every project or task id lands in the same bucket.
+ *
+ * Full-text search is left out: it relies on PostgreSQL tsvector functions the H2 stand-in
+ * doesn't have.
+ */
+final class Workload {
+    
+    private static final String[] SORT_FIELDS = {"id", "title", "dueDate"};
+    
+    private final ApiClient client;
+    private final double readRatio;
+    private final double loginRatio;
+    
+    Workload(ApiClient client, LoadTestOptions options) {
+        this.client = client;
+        this.readRatio = options.readRatio();
+        this.loginRatio = options.loginRatio();
+    }
+    
+    void step(UserSession user, LatencyRecorder recorder) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < loginRatio) {
+            login(user, recorder);
+        } else if (random.nextDouble() < readRatio) {
+            read(user, recorder, random);
+        } else {
+            write(user, recorder, random);
+        }
+    }
+    
+    private void login(UserSession user, LatencyRecorder recorder) throws InterruptedException {
+        ApiClient.Response response = timed(recorder, "POST /auth/login",
+                () -> client.post("/auth/login", null, new LoginRequest(user.email, user.password)));
+        if (response != null && response.ok()) {
+            try {
+                user.token = client.read(response, LoginResponse.class).getToken();
+            } catch (IOException e) {
+                // Keep using the previous token
+            }
+        }
+    }
+    
+    private void read(UserSession user, LatencyRecorder recorder, ThreadLocalRandom random) throws InterruptedException {
+        String token = user.token;
+        Long projectId = pick(user.projectIds, random);
+        int choice = random.nextInt(100);
+        
+        if (choice < 15) {
+            timed(recorder, "GET /projects", () -> client.get("/projects", token));
+        } else if (choice < 35) {
+            timed(recorder, "GET /tasks", () -> client.get("/tasks?projectId=" + projectId, token));
+        } else if (choice < 55) {
+            String completed = switch (random.nextInt(3)) {
+                case 0 -> "";
+                case 1 -> "&completed=true";
+                default -> "&completed=false";
+            };
+            String path = "/tasks/filter?projectId=" + projectId + completed
+                    + "&sortBy=" + SORT_FIELDS[random.nextInt(SORT_FIELDS.length)]
+                    + "&page=" + random.nextInt(5) + "&size=20";
+            timed(recorder, "GET /tasks/filter", () -> client.get(path, token));
+        } else if (choice < 65) {
+            String path = "/tasks/cursor?projectId=" + projectId + "&sortBy=dueDate&size=20";
+            timed(recorder, "GET /tasks/cursor", () -> client.get(path, token));
+        } else if (choice < 80) {
+            Long taskId = pick(user.seededTasks, random).id();
+            timed(recorder, "GET /tasks/{id}", () -> client.get("/tasks/" + taskId, token));
+        } else if (choice < 90) {
+            timed(recorder, "GET /projects/{id}/progress", () -> client.get("/projects/" + projectId + "/progress", token));
+        } else if (choice < 95) {
+            timed(recorder, "GET /projects/{id}", () -> client.get("/projects/" + projectId, token));
+        } else {
+            timed(recorder, "GET /projects/dashboard", () -> client.get("/projects/dashboard?tasksPerProject=5", token));
+        }
+    }
+    
+    private void write(UserSession user, LatencyRecorder recorder, ThreadLocalRandom random) throws InterruptedException {
+        String token = user.token;
+        Long projectId = pick(user.projectIds, random);
+        int choice = random.nextInt(100);
+        
+        if (choice < 40) {
+            TaskRequest task = DatasetSeeder.randomTask(projectId);
+            ApiClient.Response response = timed(recorder, "POST /tasks", () -> client.post("/tasks", token, task));
+            if (response != null && response.ok()) {
+                try {
+                    user.createdTaskIds.add(client.read(response, TaskResponse.class).getId());
+                } catch (IOException e) {
+                    // The task just won't be deleted later
+                }
+            }
+        } else if (choice < 80) {
+            UserSession.SeededTask seeded = pick(user.seededTasks, random);
+            // Seeded tasks stay in their project, only their content and completion change
+            TaskRequest task = DatasetSeeder.randomTask(seeded.projectId());
+            timed(recorder, "PUT /tasks/{id}", () -> client.put("/tasks/" + seeded.id(), token, task));
+        } else {
+            Long taskId = user.createdTaskIds.pollFirst();
+            if (taskId == null) {
+                return;
+            }
+            timed(recorder, "DELETE /tasks/{id}", () -> client.delete("/tasks/" + taskId, token));
+        }
+    }
+    
+    /**
+     * Sends the request and records its latency; transport failures count as errors.
+     */
+    private static ApiClient.Response timed(LatencyRecorder recorder, String endpoint, Call call) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            ApiClient.Response response = call.execute();
+            recorder.record(endpoint, System.nanoTime() - start, response.ok());
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+    
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+    
+    @FunctionalInterface
+    private interface Call {
+        ApiClient.Response execute() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,88 @@
+package com.taskmanager.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.taskmanager.dtos.CursorPageResponse;
+import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.ProjectSummaryResponse;
+import com.taskmanager.dtos.SyncResponse;
+import com.taskmanager.dtos.TaskResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * JSON, Smile and CBOR message converters sharing Spring Boot's Jackson settings, so every
+ * controller negotiates the format from the Accept header.
+ */
+@Configuration
+public class JacksonConfig {
+    
+    /**
+     * Generated accessors instead of reflection for getters and setters. Spring Boot registers
+     * Module beans with its ObjectMapper, and the builder below passes them on to Smile and CBOR.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper = builder.createXmlMapper(false).factory(new SmileFactory()).build();
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper);
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.createXmlMapper(false).factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+    
+    /**
+     * Builds the serializers of the response types up front, so the first requests after a
+     * deploy don't pay for introspecting them. Creating an ObjectWriter for a type caches its
+     * serializer in the mapper.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareWriters(ApplicationReadyEvent event) {
+        List<AbstractJackson2HttpMessageConverter> converters = event.getApplicationContext()
+                .getBeanProvider(AbstractJackson2HttpMessageConverter.class)
+                .stream()
+                .toList();
+        
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            ObjectMapper mapper = converter.getObjectMapper();
+            for (JavaType type : responseTypes(mapper.getTypeFactory())) {
+                mapper.writerFor(type);
+            }
+        }
+    }
+    
+    private static List<JavaType> responseTypes(TypeFactory types) {
+        return List.of(
+                types.constructType(TaskResponse.class),
+                types.constructType(ProjectResponse.class),
+                types.constructCollectionType(List.class, TaskResponse.class),
+                types.constructCollectionType(List.class, ProjectResponse.class),
+                types.constructCollectionType(List.class, ProjectSummaryResponse.class),
+                types.constructParametricType(PageResponse.class, TaskResponse.class),
+                types.constructParametricType(PageResponse.class, ProjectResponse.class),
+                types.constructParametricType(CursorPageResponse.class, TaskResponse.class),
+                types.constructParametricType(CursorPageResponse.class, ProjectResponse.class),
+                types.constructType(SyncResponse.class)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskmanager.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. QueryCountFilter resets
+ * the count when a request starts and records it when the request ends. Statements sent
+ * through JdbcTemplate bypass Hibernate and aren't counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+    
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+    
+    static int current() {
+        return COUNT.get()[0];
+    }
+}
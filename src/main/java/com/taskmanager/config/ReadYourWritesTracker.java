@@ -0,0 +1,73 @@
+package com.taskmanager.config;
+
+import com.taskmanager.security.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last wrote, so their reads can stay on the primary until the
+ * replicas have had time to catch up. Tracking is per application instance; behind a load
+ * balancer without sticky routing a user's next read may land on an instance that doesn't
+ * know about the write.
+ */
+public class ReadYourWritesTracker {
+    
+    private final long windowMillis;
+    
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+    
+    /**
+     * Called when a read-write transaction obtains its connection. The time is taken again at
+     * completion so the window starts when the write became visible, not when it began.
+     */
+    void recordWrite() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        
+        lastWriteByUser.put(userId, System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWriteByUser.put(userId, System.currentTimeMillis());
+                }
+            });
+        }
+    }
+    
+    boolean recentlyWrote() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+    
+    /**
+     * Drops users whose window has passed so the map only holds recent writers.
+     */
+    void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled with datasource.replicas.enabled=true. The primary pool is
+ * still configured through spring.datasource.*; replicas share its credentials unless
+ * datasource.replicas.username/password are set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Value("${datasource.replicas.urls}")
+    private String[] replicaUrls;
+    
+    @Value("${datasource.replicas.username:}")
+    private String replicaUsername;
+    
+    @Value("${datasource.replicas.password:}")
+    private String replicaPassword;
+    
+    @Value("${datasource.replicas.pool-size:10}")
+    private int replicaPoolSize;
+    
+    @Value("${datasource.replicas.max-lag:2000}")
+    private long maxLagMillis;
+    
+    @Value("${datasource.replicas.read-your-writes-window:5000}")
+    private long readYourWritesWindowMillis;
+    
+    // Migrations always run against the primary
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        String username = replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername;
+        String password = replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword;
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // A replica that is down at startup must not keep the application from starting
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        
+        return new ReplicaRoutingDataSource(primary, replicas, new ReadYourWritesTracker(readYourWritesWindowMillis),
+                maxLagMillis);
+    }
+    
+    /**
+     * The DataSource JPA and JdbcTemplate use. Physical connections are fetched on the first
+     * statement, once the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    /**
+     * With open-in-view, Hibernate would otherwise hold the first connection it got for the
+     * whole request, so a write after a replica read would go to the replica.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+    
+    @Bean
+    public MeterBinder replicaHealthMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> Gauge.builder("datasource.replicas.healthy", replicaRoutingDataSource,
+                        routing -> routing.healthyReplicas().size())
+                .description("Replicas currently receiving read-only traffic")
+                .register(registry);
+    }
+}
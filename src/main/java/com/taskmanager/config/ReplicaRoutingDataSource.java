@@ -0,0 +1,153 @@
+package com.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy: the
+ * read-only flag is only known once the transaction has started, after the connection
+ * would normally have been fetched.
+ *
+ * A replica is skipped when the last health check failed, when it lags more than the
+ * allowed delay, or when handing out a connection fails; reads then fall back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    static final String PRIMARY = "primary";
+    
+    // Zero while the replica has replayed everything it received, so an idle primary doesn't read as lag
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Map<String, Replica> replicasByKey = new HashMap<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    ReadYourWritesTracker readYourWritesTracker, long maxLagMillis) {
+        this.primary = primary;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagMillis = maxLagMillis;
+        
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<Replica> replicas = new ArrayList<>();
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            replicasByKey.put(replica.key, replica);
+            targets.put(replica.key, pool);
+        }
+        this.replicas = List.copyOf(replicas);
+        
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.recentlyWrote()) {
+            return PRIMARY;
+        }
+        
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        Replica replica = replicasByKey.get(key);
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            // Fail over right away instead of waiting for the next health check
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${datasource.replicas.health-check-interval:5000}",
+               fixedDelayString = "${datasource.replicas.health-check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                    resultSet.next();
+                    long lagMillis = resultSet.getLong(1);
+                    if (lagMillis > maxLagMillis) {
+                        markDown(replica, "replication lag " + lagMillis + " ms");
+                    } else if (!replica.healthy) {
+                        replica.healthy = true;
+                        logger.info("Replica {} is healthy again, routing reads to it", replica.key);
+                    }
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        readYourWritesTracker.purgeExpired();
+    }
+    
+    List<String> healthyReplicas() {
+        return replicas.stream().filter(replica -> replica.healthy).map(replica -> replica.key).toList();
+    }
+    
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Replica {} taken out of rotation: {}", replica.key, reason);
+        }
+    }
+    
+    private static final class Replica {
+        
+        final String key;
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+        
+        Replica(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
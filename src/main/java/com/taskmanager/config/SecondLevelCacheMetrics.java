@@ -0,0 +1,62 @@
+package com.taskmanager.config;
+
+import com.taskmanager.models.Project;
+import com.taskmanager.models.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Publishes eviction counts and hit percentage of the second-level cache regions, read from the
+ * JCache statistics MBeans. Hit/miss/put counts per region come from hibernate-micrometer.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+    
+    private static final List<String> REGIONS = List.of(
+            User.CACHE_REGION,
+            User.NATURAL_ID_CACHE_REGION,
+            Project.CACHE_REGION
+    );
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        
+        for (String region : REGIONS) {
+            FunctionCounter.builder("hibernate.second.level.cache.evictions", server,
+                            s -> readStatistic(s, region, "CacheEvictions"))
+                    .tag("region", region)
+                    .description("Entries evicted from the cache region because of its size or expiry policy")
+                    .register(registry);
+            
+            Gauge.builder("hibernate.second.level.cache.hit.percentage", server,
+                            s -> readStatistic(s, region, "CacheHitPercentage"))
+                    .tag("region", region)
+                    .description("Share of lookups in the cache region served from the cache")
+                    .register(registry);
+        }
+    }
+    
+    private static double readStatistic(MBeanServer server, String region, String attribute) {
+        try {
+            // The region is only registered once Hibernate first touches it
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*");
+            double total = 0;
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                total += ((Number) server.getAttribute(name, attribute)).doubleValue();
+            }
+            return total;
+        } catch (JMException e) {
+            return Double.NaN;
+        }
+    }
+}
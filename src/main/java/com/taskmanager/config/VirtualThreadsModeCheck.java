@@ -0,0 +1,29 @@
+package com.taskmanager.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Boot silently falls back to platform threads when virtual threads are requested on
+ * a JVM older than 21, which would make a "virtual" deployment look fine but behave as before.
+ */
+@Component
+@Profile("virtual")
+public class VirtualThreadsModeCheck {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsModeCheck.class);
+    
+    @PostConstruct
+    void check() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            logger.warn("The 'virtual' profile is active but the JVM is Java {}; requests still run on platform threads. " +
+                    "Build with -Pjava21 and run on Java 21+.", feature);
+        } else {
+            logger.info("Virtual-thread mode enabled on Java {}", feature);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.taskmanager.dtos.LoginRequest;
 import com.taskmanager.dtos.LoginResponse;
 import com.taskmanager.dtos.RegisterRequest;
 import com.taskmanager.services.AuthService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,22 +13,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
+@Timed(value = "app.controller", histogram = true)
 @RequestMapping("/auth")
 public class AuthController {
     
     @Autowired
     private AuthService authService;
     
+    // Both complete asynchronously: BCrypt runs on the bounded password hashing pool, not on request threads
     @PostMapping("/register")
-    public ResponseEntity<LoginResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        LoginResponse response = authService.register(registerRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<LoginResponse>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return authService.register(registerRequest).thenApply(ResponseEntity::ok);
     }
     
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        LoginResponse response = authService.login(loginRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.login(loginRequest).thenApply(ResponseEntity::ok);
     }
 }
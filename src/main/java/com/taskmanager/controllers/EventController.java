@@ -0,0 +1,30 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.services.ChangeEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+public class EventController {
+    
+    @Autowired
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    
+    // Not @Timed like the other controllers: a stream stays open for minutes
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = changeEventBroadcaster.subscribe(lastEventId);
+        // Reverse proxies must pass events through as they are written
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,29 +1,46 @@
 package com.taskmanager.controllers;
 
+import com.taskmanager.dtos.CursorPageResponse;
 import com.taskmanager.dtos.PageResponse;
 import com.taskmanager.dtos.ProjectRequest;
 import com.taskmanager.dtos.ProjectResponse;
 import com.taskmanager.dtos.ProgressResponse;
+import com.taskmanager.dtos.ProjectSummaryResponse;
 import com.taskmanager.services.ProjectService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
+@Timed(value = "app.controller", histogram = true)
 @RequestMapping("/projects")
 public class ProjectController {
     
+    // Clients may keep the list but must revalidate it with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private ProjectService projectService;
     
     @GetMapping
-    public ResponseEntity<List<ProjectResponse>> getAllProjects() {
-        List<ProjectResponse> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectResponse>> getAllProjects(
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            WebRequest webRequest) {
+        // One aggregate query decides 304s before the projects are loaded; checkNotModified also sets the ETag header
+        if (webRequest.checkNotModified(projectService.getProjectsEtag(includeDescription))) {
+            return null;
+        }
+        
+        List<ProjectResponse> projects = projectService.getAllProjects(includeDescription);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(projects);
     }
     
     @GetMapping("/paginated")
@@ -31,11 +48,33 @@ public class ProjectController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
-        PageResponse<ProjectResponse> projects = projectService.getProjectsWithPagination(page, size, sortBy, sortDirection);
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        PageResponse<ProjectResponse> projects =
+                projectService.getProjectsWithPagination(page, size, sortBy, sortDirection, includeDescription);
         return ResponseEntity.ok(projects);
     }
     
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<ProjectResponse>> getProjectsWithCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeCount,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        CursorPageResponse<ProjectResponse> projects =
+                projectService.getProjectsWithCursor(cursor, size, sortBy, sortDirection, includeCount, includeDescription);
+        return ResponseEntity.ok(projects);
+    }
+    
+    @GetMapping("/dashboard")
+    public ResponseEntity<List<ProjectSummaryResponse>> getDashboard(
+            @RequestParam(defaultValue = "0") int tasksPerProject) {
+        List<ProjectSummaryResponse> dashboard = projectService.getDashboard(tasksPerProject);
+        return ResponseEntity.ok(dashboard);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ProjectResponse> getProjectById(@PathVariable Long id) {
         ProjectResponse project = projectService.getProjectById(id);
@@ -56,8 +95,9 @@ public class ProjectController {
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteProject(id);
-        return ResponseEntity.noContent().build();
+        boolean deferred = projectService.deleteProject(id);
+        // 202: the project is gone from every read, its rows are still being removed
+        return deferred ? ResponseEntity.accepted().build() : ResponseEntity.noContent().build();
     }
     
     @GetMapping("/{id}/progress")
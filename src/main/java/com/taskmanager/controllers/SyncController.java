@@ -0,0 +1,28 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.dtos.SyncResponse;
+import com.taskmanager.services.SyncService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Timed(value = "app.controller", histogram = true)
+@RequestMapping("/sync")
+public class SyncController {
+    
+    @Autowired
+    private SyncService syncService;
+    
+    @GetMapping
+    public ResponseEntity<SyncResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        SyncResponse changes = syncService.getChanges(since, size);
+        return ResponseEntity.ok(changes);
+    }
+}
@@ -1,49 +1,181 @@
 package com.taskmanager.controllers;
 
+import com.taskmanager.dtos.CalendarResponse;
+import com.taskmanager.dtos.CursorPageResponse;
 import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.TaskBatchIdsRequest;
+import com.taskmanager.dtos.TaskBatchRequest;
+import com.taskmanager.dtos.TaskBatchUpdateRequest;
 import com.taskmanager.dtos.TaskFilterRequest;
+import com.taskmanager.dtos.TaskImportResponse;
 import com.taskmanager.dtos.TaskRequest;
 import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.services.TaskExportService;
+import com.taskmanager.services.TaskFileFormat;
+import com.taskmanager.services.TaskImportService;
 import com.taskmanager.services.TaskService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
+@Timed(value = "app.controller", histogram = true)
 @RequestMapping("/tasks")
 public class TaskController {
     
+    // Clients may keep the list but must revalidate it with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private TaskService taskService;
     
+    @Autowired
+    private TaskExportService taskExportService;
+    
+    @Autowired
+    private TaskImportService taskImportService;
+    
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getTasksByProjectId(@RequestParam Long projectId) {
-        List<TaskResponse> tasks = taskService.getTasksByProjectId(projectId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponse>> getTasksByProjectId(
+            @RequestParam Long projectId,
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            WebRequest webRequest) {
+        // The project's task stamp decides 304s before any task is loaded; checkNotModified also sets the ETag header
+        if (webRequest.checkNotModified(taskService.getTasksEtag(projectId, includeDescription))) {
+            return null;
+        }
+        
+        List<TaskResponse> tasks = taskService.getTasksByProjectId(projectId, includeDescription);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(tasks);
     }
     
     @GetMapping("/filter")
     public ResponseEntity<PageResponse<TaskResponse>> getTasksWithFilters(
-            @RequestParam Long projectId,
+            @RequestParam(required = false) Long projectId,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Boolean completed,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            WebRequest webRequest) {
+        
+        // Cross-project searches have no single stamp to validate against
+        if (projectId != null && webRequest.checkNotModified(taskService.getTasksEtag(projectId, includeDescription))) {
+            return null;
+        }
         
         TaskFilterRequest filterRequest = new TaskFilterRequest(
-                projectId, search, completed, sortBy, sortDirection, page, size
+                projectId, search, completed, sortBy, sortDirection, page, size, null, includeDescription
         );
         
         PageResponse<TaskResponse> tasks = taskService.getTasksWithFilters(filterRequest);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(tasks);
+    }
+    
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> getTasksWithCursor(
+            @RequestParam Long projectId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        
+        TaskFilterRequest filterRequest = new TaskFilterRequest(
+                projectId, null, completed, sortBy, sortDirection, 0, size, cursor, includeDescription
+        );
+        
+        CursorPageResponse<TaskResponse> tasks = taskService.getTasksWithCursor(filterRequest);
+        return ResponseEntity.ok(tasks);
+    }
+    
+    @GetMapping("/overdue")
+    public ResponseEntity<PageResponse<TaskResponse>> getOverdueTasks(
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        
+        PageResponse<TaskResponse> tasks = taskService.getOverdueTasks(page, size, includeDescription);
+        return ResponseEntity.ok(tasks);
+    }
+    
+    @GetMapping("/due")
+    public ResponseEntity<PageResponse<TaskResponse>> getTasksDueBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeCompleted,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "true") boolean includeDescription) {
+        
+        PageResponse<TaskResponse> tasks = taskService.getTasksDueBetween(
+                from, to, includeCompleted, page, size, includeDescription);
         return ResponseEntity.ok(tasks);
     }
     
+    @GetMapping("/calendar")
+    public ResponseEntity<CalendarResponse> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "true") boolean includeCompleted) {
+        
+        CalendarResponse calendar = taskService.getCalendar(from, to, includeCompleted);
+        return ResponseEntity.ok(calendar);
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        TaskFileFormat exportFormat = TaskFileFormat.fromExtension(format);
+        StreamingResponseBody body = taskExportService.exportTasks(projectId, exportFormat, gzip);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<TaskImportResponse> importTasks(
+            @RequestParam(required = false) Long projectId,
+            HttpServletRequest request) throws IOException {
+        
+        TaskFileFormat format = TaskFileFormat.fromContentType(request.getContentType());
+        InputStream input = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            input = new GZIPInputStream(input);
+        }
+        
+        TaskImportResponse response = taskImportService.importTasks(input, format, projectId);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
         TaskResponse task = taskService.getTaskById(id);
@@ -62,6 +194,31 @@ public class TaskController {
         return ResponseEntity.ok(task);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> createTasks(@Valid @RequestBody TaskBatchRequest request) {
+        List<TaskResponse> tasks = taskService.createTasks(request.getTasks());
+        return ResponseEntity.status(HttpStatus.CREATED).body(tasks);
+    }
+    
+    @PutMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> updateTasks(@Valid @RequestBody TaskBatchUpdateRequest request) {
+        List<TaskResponse> tasks = taskService.updateTasks(request.getTasks());
+        return ResponseEntity.ok(tasks);
+    }
+    
+    @PutMapping("/batch/complete")
+    public ResponseEntity<List<TaskResponse>> completeTasks(@Valid @RequestBody TaskBatchIdsRequest request) {
+        Boolean completed = request.getCompleted() != null ? request.getCompleted() : Boolean.TRUE;
+        List<TaskResponse> tasks = taskService.completeTasks(request.getIds(), completed);
+        return ResponseEntity.ok(tasks);
+    }
+    
+    @DeleteMapping("/batch")
+    public ResponseEntity<Void> deleteTasks(@Valid @RequestBody TaskBatchIdsRequest request) {
+        taskService.deleteTasks(request.getIds());
+        return ResponseEntity.noContent().build();
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
@@ -0,0 +1,19 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDayResponse {
+    private LocalDate date;
+    private int totalTasks;
+    private int completedTasks;
+    // Without descriptions, ordered by id
+    private List<TaskResponse> tasks;
+}
@@ -0,0 +1,20 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // Only days with at least one task
+    private List<CalendarDayResponse> days;
+    // More tasks fall in the range than tasks.calendar.max-tasks; the last days are incomplete
+    private boolean truncated;
+}
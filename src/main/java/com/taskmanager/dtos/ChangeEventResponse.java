@@ -0,0 +1,14 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventResponse {
+    private String action;
+    private Long id;
+    private Long projectId;
+}
@@ -0,0 +1,22 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private int totalTasks;
+    private int completedTasks;
+    private long overdueTasks;
+    private double progressPercentage;
+    // First tasks of the project, empty unless requested
+    private List<TaskResponse> tasks;
+}
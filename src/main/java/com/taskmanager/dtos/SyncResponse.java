@@ -0,0 +1,22 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Created or updated since the cursor
+    private List<ProjectResponse> projects;
+    private List<TaskResponse> tasks;
+    private List<TombstoneResponse> deleted;
+    // Pass as "since" on the next call
+    private String nextCursor;
+    private boolean hasMore;
+    // The cursor is older than the retained deletions: drop local data and sync again without a cursor
+    private boolean reset;
+}
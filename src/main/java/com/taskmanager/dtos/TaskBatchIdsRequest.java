@@ -0,0 +1,22 @@
+package com.taskmanager.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchIdsRequest {
+    
+    @NotEmpty(message = "Task IDs are required")
+    @Size(max = 1000, message = "At most 1000 tasks per batch")
+    private List<Long> ids;
+    
+    // Only used by the complete endpoint
+    private Boolean completed = true;
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchUpdateRequest {
+    
+    @NotEmpty(message = "Tasks are required")
+    @Size(max = 1000, message = "At most 1000 tasks per batch")
+    @Valid
+    private List<TaskBatchItem> tasks;
+}
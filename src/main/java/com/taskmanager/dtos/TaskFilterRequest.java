@@ -15,4 +15,8 @@ public class TaskFilterRequest {
     private String sortDirection = "asc";
     private Integer page = 0;
     private Integer size = 10;
+    // Opaque keyset cursor, only used by cursor pagination
+    private String cursor;
+    // List views can leave the (potentially large) description out
+    private boolean includeDescription = true;
 }
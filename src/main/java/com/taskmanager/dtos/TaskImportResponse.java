@@ -0,0 +1,24 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportResponse {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long durationMillis;
+    private double rowsPerSecond;
+    // Capped, see errorsTruncated
+    private List<TaskImportError> errors;
+    private boolean errorsTruncated;
+    // Stopped by an error after some chunks were committed: importedRows of them stay imported
+    private boolean aborted;
+    private String abortReason;
+}
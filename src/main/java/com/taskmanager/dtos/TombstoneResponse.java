@@ -0,0 +1,15 @@
+package com.taskmanager.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneResponse {
+    // "task" or "project"; the tasks of a deleted project are not listed separately
+    private String entity;
+    private Long id;
+    private Long projectId;
+}
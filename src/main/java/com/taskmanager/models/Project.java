@@ -5,19 +5,38 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "projects")
+// The indexes are created by db/migration; repeated here for schemas generated from the entities
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_projects_user_title", columnList = "user_id, title, id"),
+        @Index(name = "idx_projects_user_updated", columnList = "user_id, updated_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
     
+    // Dot-free: Caffeine resolves region names as paths in application.conf
+    public static final String CACHE_REGION = "projects";
+    
+    // Pooled sequence ids let Hibernate batch inserts (IDENTITY forces one round trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -28,9 +47,42 @@ public class Project {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     private User user;
     
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Maintained through ProjectRepository.adjustTaskCounters, never written by entity updates
+    @ColumnDefault("0")
+    @Column(name = "total_tasks", nullable = false, insertable = false, updatable = false)
+    private Integer totalTasks = 0;
+    
+    @ColumnDefault("0")
+    @Column(name = "completed_tasks", nullable = false, insertable = false, updatable = false)
+    private Integer completedTasks = 0;
+    
+    // Bumped with every write to one of the project's tasks, used as the ETag of its task lists
+    @ColumnDefault("0")
+    @Column(name = "task_stamp", nullable = false, insertable = false, updatable = false)
+    private Long taskStamp = 0L;
+    
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // Set on every insert and update of the project itself; task counter updates don't touch it
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    
+    // Set when a large project is deleted asynchronously: the project is hidden right away and
+    // ProjectPurger removes its tasks in chunks, then the row itself
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+    
+    // Mapped for queries only. Tasks go with their project through ON DELETE CASCADE in the
+    // database, never by loading and removing them one by one
+    @OneToMany(mappedBy = "project")
     private List<Task> tasks = new ArrayList<>();
 }
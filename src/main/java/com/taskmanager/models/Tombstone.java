@@ -0,0 +1,45 @@
+package com.taskmanager.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Record of a deleted task or project, kept so GET /sync can report deletions. Plain columns
+ * instead of foreign keys: the rows they point at are gone. Purged after sync.tombstone-retention.
+ * The indexes are created by db/migration and repeated here for generated schemas.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstones_user_deleted", columnList = "user_id, deleted_at, id"),
+        @Index(name = "idx_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstones_seq")
+    @SequenceGenerator(name = "tombstones_seq", sequenceName = "tombstones_seq", allocationSize = 50)
+    private Long id;
+    
+    // "task" or "project"
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "project_id")
+    private Long projectId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
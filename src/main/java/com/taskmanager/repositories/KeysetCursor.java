@@ -0,0 +1,37 @@
+package com.taskmanager.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort column value plus the id tie-breaker.
+ * Clients only ever see the opaque encoded form.
+ */
+public record KeysetCursor(String sortBy, boolean descending, String value, Long id) {
+    
+    /**
+     * Stand-in for null dates so rows without a due date have a stable position (they sort last).
+     */
+    public static final LocalDate NULL_DATE = LocalDate.of(9999, 12, 31);
+    
+    public static KeysetCursor of(String sortBy, boolean descending, Object value, Long id) {
+        return new KeysetCursor(sortBy, descending, String.valueOf(value), id);
+    }
+    
+    public String encode() {
+        String raw = sortBy + "\n" + (descending ? "desc" : "asc") + "\n" + id + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The value goes last so it may itself contain line breaks
+            String[] parts = raw.split("\n", 4);
+            return new KeysetCursor(parts[0], parts[1].equals("desc"), parts[3], Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.taskmanager.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Builds "WHERE (key, id) > (:key, :id) ORDER BY key, id LIMIT n" queries, so reading a page
+ * deep into a result set costs the same as reading the first one. Rows are selected straight
+ * into the given projection, no entity is hydrated.
+ */
+final class KeysetQuerySupport {
+    
+    private KeysetQuerySupport() {
+    }
+    
+    static <T, R> List<R> findPage(EntityManager entityManager,
+                                   Class<T> entityType,
+                                   Class<R> resultType,
+                                   BiFunction<CriteriaBuilder, Root<T>, Selection<R>> selection,
+                                   Set<String> sortableFields,
+                                   String sortBy,
+                                   boolean descending,
+                                   KeysetCursor after,
+                                   int limit,
+                                   BiFunction<CriteriaBuilder, Root<T>, List<Predicate>> filters) {
+        if (!sortableFields.contains(sortBy)) {
+            throw new RuntimeException("Cursor pagination does not support sorting by " + sortBy);
+        }
+        if (after != null && (!after.sortBy().equals(sortBy) || after.descending() != descending)) {
+            throw new RuntimeException("Cursor does not match the requested sort");
+        }
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<T> root = query.from(entityType);
+        query.select(selection.apply(cb, root));
+        
+        boolean sortById = sortBy.equals("id");
+        Expression<Long> id = root.get("id");
+        Expression<?> key = sortById ? id : sortKey(cb, root, sortBy);
+        
+        List<Predicate> predicates = new ArrayList<>(filters.apply(cb, root));
+        if (after != null) {
+            Predicate afterId = compare(cb, id, after.id(), descending);
+            if (sortById) {
+                predicates.add(afterId);
+            } else {
+                Comparable<?> value = parseValue(sortBy, after.value());
+                predicates.add(cb.or(
+                        compare(cb, key, value, descending),
+                        cb.and(cb.equal(key, value), afterId)
+                ));
+            }
+        }
+        
+        query.where(predicates.toArray(new Predicate[0]));
+        if (sortById) {
+            query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            query.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+        }
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    private static <T> Expression<?> sortKey(CriteriaBuilder cb, Root<T> root, String sortBy) {
+        if (sortBy.equals("dueDate")) {
+            // A literal rather than a bound parameter, so the expression matches idx_tasks_project_due
+            return cb.coalesce(root.<LocalDate>get("dueDate"), cb.literal(KeysetCursor.NULL_DATE));
+        }
+        return root.get(sortBy);
+    }
+    
+    private static Comparable<?> parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "id" -> Long.valueOf(value);
+            case "completed" -> Boolean.valueOf(value);
+            case "dueDate" -> LocalDate.parse(value);
+            default -> value;
+        };
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Expression key, Comparable value, boolean descending) {
+        return descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+    }
+}
@@ -0,0 +1,14 @@
+package com.taskmanager.repositories;
+
+import java.time.Instant;
+
+/**
+ * Project row of the sync query, with the modification time that positions it.
+ */
+public interface ProjectChangeView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    Long getUserId();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,10 @@
+package com.taskmanager.repositories;
+
+/**
+ * Task counters and task stamp of a project, read from the row rather than the second-level cache.
+ */
+public interface ProjectCounters {
+    Integer getTotalTasks();
+    Integer getCompletedTasks();
+    Long getTaskStamp();
+}
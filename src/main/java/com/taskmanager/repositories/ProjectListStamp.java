@@ -0,0 +1,11 @@
+package com.taskmanager.repositories;
+
+/**
+ * Aggregate that changes whenever one of a user's projects is created, edited or deleted.
+ * Versions only grow and ids are never reused, so the triple identifies a state of the list.
+ */
+public interface ProjectListStamp {
+    Long getProjectCount();
+    Long getMaxId();
+    Long getVersionSum();
+}
@@ -1,15 +1,125 @@
 package com.taskmanager.repositories;
 
+import com.taskmanager.dtos.ProjectResponse;
 import com.taskmanager.models.Project;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
-    List<Project> findByUserId(Long userId);
-    Page<Project> findByUserId(Long userId, Pageable pageable);
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
+    
+    /**
+     * Builds the response straight from the row, reading the description only when asked for.
+     */
+    String PROJECT_RESPONSE = "SELECT new com.taskmanager.dtos.ProjectResponse(p.id, p.title, " +
+            "CASE WHEN :includeDescription = true THEN p.description END, p.user.id) FROM Project p ";
+    
+    @Query(PROJECT_RESPONSE + "WHERE p.user.id = :userId AND p.deletedAt IS NULL ORDER BY p.id")
+    List<ProjectResponse> findResponsesByUserId(@Param("userId") Long userId,
+                                                @Param("includeDescription") boolean includeDescription);
+    
+    default Page<ProjectResponse> findResponsesByUserId(Long userId, boolean includeDescription, Pageable pageable) {
+        return includeDescription
+                ? findResponsesByUserId(userId, pageable)
+                : findResponsesWithoutDescriptionByUserId(userId, pageable);
+    }
+    
+    // Spring Data binds every parameter to the count query as well, so the pages can't take :includeDescription
+    @Query(value = "SELECT new com.taskmanager.dtos.ProjectResponse(p.id, p.title, p.description, p.user.id) " +
+                   "FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL",
+           countQuery = "SELECT COUNT(p) FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL")
+    Page<ProjectResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(value = "SELECT new com.taskmanager.dtos.ProjectResponse(p.id, p.title, CAST(NULL AS String), p.user.id) " +
+                   "FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL",
+           countQuery = "SELECT COUNT(p) FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL")
+    Page<ProjectResponse> findResponsesWithoutDescriptionByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    long countByUserIdAndDeletedAtIsNull(Long userId);
+    
+    List<Project> findByIdInAndUserIdAndDeletedAtIsNull(Collection<Long> ids, Long userId);
+    
+    /**
+     * Projects deleted asynchronously whose rows are still waiting for ProjectPurger, oldest first.
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.deletedAt IS NOT NULL ORDER BY p.deletedAt")
+    List<Long> findDeletedIds(Pageable pageable);
+    
+    @Query("SELECT p.id AS id, p.title AS title, p.description AS description, " +
+           "p.totalTasks AS totalTasks, p.completedTasks AS completedTasks, COUNT(t.id) AS overdueTasks " +
+           "FROM Project p LEFT JOIN p.tasks t ON t.completed = false AND t.dueDate < :today " +
+           "WHERE p.user.id = :userId AND p.deletedAt IS NULL " +
+           "GROUP BY p.id, p.title, p.description, p.totalTasks, p.completedTasks " +
+           "ORDER BY p.id")
+    List<ProjectSummaryView> findSummariesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+    
+    /**
+     * Counters and task stamp by query, never from the second-level cache: they are updated by plain JDBC
+     * (adjustTaskCounters), and a reader racing that update can re-cache the old row for the whole TTL.
+     */
+    @Query("SELECT p.totalTasks AS totalTasks, p.completedTasks AS completedTasks, p.taskStamp AS taskStamp " +
+           "FROM Project p WHERE p.id = :id AND p.user.id = :userId AND p.deletedAt IS NULL")
+    Optional<ProjectCounters> findCountersByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    @Query("SELECT COUNT(p) AS projectCount, COALESCE(MAX(p.id), 0) AS maxId, COALESCE(SUM(p.version), 0) AS versionSum " +
+           "FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL")
+    ProjectListStamp findListStampByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Projects of the user changed after the position, oldest first.
+     */
+    @Query("SELECT p.id AS id, p.title AS title, p.description AS description, p.user.id AS userId, " +
+           "p.updatedAt AS updatedAt FROM Project p WHERE p.user.id = :userId AND p.deletedAt IS NULL " +
+           "AND (p.updatedAt > :after OR (p.updatedAt = :after AND p.id > :afterId)) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<ProjectChangeView> findChangedSince(@Param("userId") Long userId,
+                                             @Param("after") Instant after,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+    
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Project p")
+    Long findMaxId();
+    
+    /**
+     * Locks the projects of the id range against counter adjustments until the transaction ends. Task writes
+     * adjust the counters of their project before committing, so once the lock is held every task committed
+     * so far is visible to the next statement and any later one will add its own delta afterwards. NO KEY
+     * UPDATE is the lock the counter updates take; it doesn't block task inserts checking the foreign key.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT id FROM projects WHERE id > :afterId AND id <= :upToId ORDER BY id FOR NO KEY UPDATE",
+           nativeQuery = true)
+    List<Long> lockIdRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+    
+    /**
+     * Rewrites drifted counters of the id range from a recount. Must run after lockIdRange in the same
+     * transaction: the counts come from this statement's snapshot, taken without the lock they would miss
+     * tasks committed while the update waits for a project row and write stale totals back.
+     */
+    // Declaring the affected table keeps Hibernate from wiping every cache region, only Project entries are dropped
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "projects"))
+    @Query(value = "UPDATE projects p SET total_tasks = c.total, completed_tasks = c.completed " +
+                   "FROM (SELECT p2.id, COUNT(t.id) AS total, COUNT(t.id) FILTER (WHERE t.completed) AS completed " +
+                   "      FROM projects p2 LEFT JOIN tasks t ON t.project_id = p2.id " +
+                   "      WHERE p2.id > :afterId AND p2.id <= :upToId GROUP BY p2.id) c " +
+                   "WHERE p.id = c.id AND (p.total_tasks <> c.total OR p.completed_tasks <> c.completed)",
+           nativeQuery = true)
+    int reconcileTaskCounters(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
 }
@@ -0,0 +1,39 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.models.Project;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProjectRepositoryCustom {
+    
+    /**
+     * Returns up to {@code limit} projects of the user positioned after the cursor (or from the start when null),
+     * without their description unless asked for.
+     */
+    List<ProjectResponse> findKeysetPage(Long userId, String sortBy, boolean descending, KeysetCursor after, int limit,
+                                         boolean includeDescription);
+    
+    /**
+     * Loads the project by id through the second-level cache and returns it only if it belongs to the user
+     * and isn't being deleted.
+     */
+    Optional<Project> findOwnedById(Long id, Long userId);
+    
+    /**
+     * Ownership check served from the second-level cache once the project has been loaded.
+     */
+    boolean isOwnedBy(Long id, Long userId);
+    
+    /**
+     * Applies deltas to the denormalized task counters, bumps the task stamp and evicts only that
+     * project from the second-level cache.
+     */
+    int adjustTaskCounters(Long projectId, int totalDelta, int completedDelta);
+    
+    /**
+     * Bumps the task stamp after a task write that leaves the counters unchanged.
+     */
+    int markTasksChanged(Long projectId);
+}
@@ -0,0 +1,89 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.models.Project;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+    
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "title");
+    
+    private static final String ADJUST_COUNTERS_SQL =
+            "UPDATE projects SET total_tasks = total_tasks + ?, completed_tasks = completed_tasks + ?, " +
+            "task_stamp = task_stamp + 1 WHERE id = ?";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public List<ProjectResponse> findKeysetPage(Long userId, String sortBy, boolean descending, KeysetCursor after, int limit,
+                                                boolean includeDescription) {
+        return KeysetQuerySupport.findPage(entityManager, Project.class, ProjectResponse.class,
+                (cb, root) -> cb.construct(ProjectResponse.class,
+                        root.get("id"),
+                        root.get("title"),
+                        includeDescription ? root.<String>get("description") : cb.nullLiteral(String.class),
+                        root.get("user").get("id")),
+                SORTABLE_FIELDS, sortBy, descending, after, limit,
+                (cb, root) -> List.of(
+                        cb.equal(root.get("user").get("id"), userId),
+                        cb.isNull(root.get("deletedAt"))));
+    }
+    
+    @Override
+    public Optional<Project> findOwnedById(Long id, Long userId) {
+        // find() goes through the second-level cache; the cached entry keeps the owner id,
+        // so getUser().getId() is answered by the proxy without touching the users table
+        Project project = entityManager.find(Project.class, id);
+        if (project == null || !project.getUser().getId().equals(userId) || project.getDeletedAt() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(project);
+    }
+    
+    @Override
+    public boolean isOwnedBy(Long id, Long userId) {
+        return findOwnedById(id, userId).isPresent();
+    }
+    
+    @Override
+    public int adjustTaskCounters(Long projectId, int totalDelta, int completedDelta) {
+        // A plain JDBC update instead of a bulk JPQL statement: Hibernate invalidates the whole
+        // Project region on bulk updates, here only the affected entry is dropped
+        int updated = jdbcTemplate.update(ADJUST_COUNTERS_SQL, totalDelta, completedDelta, projectId);
+        evict(projectId);
+        return updated;
+    }
+    
+    @Override
+    public int markTasksChanged(Long projectId) {
+        return adjustTaskCounters(projectId, 0, 0);
+    }
+    
+    private void evict(Long projectId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Project.class, projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evict again once committed so a concurrent reader can't re-cache the pre-update row
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(Project.class, projectId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.repositories;
+
+/**
+ * Per-project row of the dashboard aggregate query.
+ */
+public interface ProjectSummaryView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    Integer getTotalTasks();
+    Integer getCompletedTasks();
+    Long getOverdueTasks();
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.repositories;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Task row of the sync query, with the modification time that positions it.
+ */
+public interface TaskChangeView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    LocalDate getDueDate();
+    Boolean getCompleted();
+    Long getProjectId();
+    Instant getUpdatedAt();
+}
@@ -1,27 +1,216 @@
 package com.taskmanager.repositories;
 
+import com.taskmanager.dtos.TaskResponse;
 import com.taskmanager.models.Task;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByProjectId(Long projectId);
-    
-    Page<Task> findByProjectId(Long projectId, Pageable pageable);
-    
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId " +
-           "AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:completed IS NULL OR t.completed = :completed)")
-    Page<Task> findByFilters(@Param("projectId") Long projectId,
-                              @Param("search") String search,
-                              @Param("completed") Boolean completed,
-                              Pageable pageable);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    
+    /**
+     * Must match the expression of the idx_tasks_search GIN index exactly, otherwise the planner can't use it.
+     */
+    String SEARCH_VECTOR = "to_tsvector('simple', coalesce(t.title, '') || ' ' || coalesce(t.description, ''))";
+    
+    String SEARCH_MATCH = SEARCH_VECTOR + " @@ to_tsquery('simple', :query) " +
+            "AND (CAST(:completed AS boolean) IS NULL OR t.completed = CAST(:completed AS boolean)) ";
+    
+    String SEARCH_RANK = "ORDER BY ts_rank(" + SEARCH_VECTOR + ", to_tsquery('simple', :query)) DESC, t.id";
+    
+    /**
+     * Builds the response straight from the row: no managed entity, no project proxy, and the
+     * TEXT description is only read when {@code :includeDescription} is true.
+     */
+    String TASK_RESPONSE = "SELECT new com.taskmanager.dtos.TaskResponse(t.id, t.title, " +
+            "CASE WHEN :includeDescription = true THEN t.description END, " +
+            "t.dueDate, t.completed, t.project.id) FROM Task t ";
+    
+    /**
+     * Fixed variants of TASK_RESPONSE for paged queries. Spring Data binds every method parameter to the
+     * count query too, so a page can't take {@code :includeDescription}; each paged query comes in both
+     * variants instead, picked by a default method.
+     */
+    String TASK_WITH_DESCRIPTION = "SELECT new com.taskmanager.dtos.TaskResponse(t.id, t.title, t.description, " +
+            "t.dueDate, t.completed, t.project.id) FROM Task t ";
+    
+    String TASK_WITHOUT_DESCRIPTION = "SELECT new com.taskmanager.dtos.TaskResponse(t.id, t.title, CAST(NULL AS String), " +
+            "t.dueDate, t.completed, t.project.id) FROM Task t ";
+    
+    @Query(TASK_RESPONSE + "WHERE t.project.id = :projectId ORDER BY t.id")
+    List<TaskResponse> findResponsesByProjectId(@Param("projectId") Long projectId,
+                                                @Param("includeDescription") boolean includeDescription);
+    
+    default Page<TaskResponse> findResponsesByProjectId(Long projectId, boolean includeDescription, Pageable pageable) {
+        return includeDescription
+                ? findResponsesByProjectId(projectId, pageable)
+                : findResponsesWithoutDescriptionByProjectId(projectId, pageable);
+    }
+    
+    @Query(value = TASK_WITH_DESCRIPTION + "WHERE t.project.id = :projectId",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId")
+    Page<TaskResponse> findResponsesByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+    
+    @Query(value = TASK_WITHOUT_DESCRIPTION + "WHERE t.project.id = :projectId",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId")
+    Page<TaskResponse> findResponsesWithoutDescriptionByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+    
+    default Page<TaskResponse> findResponsesByProjectIdAndCompleted(Long projectId, Boolean completed,
+                                                                    boolean includeDescription, Pageable pageable) {
+        return includeDescription
+                ? findResponsesByProjectIdAndCompleted(projectId, completed, pageable)
+                : findResponsesWithoutDescriptionByProjectIdAndCompleted(projectId, completed, pageable);
+    }
+    
+    @Query(value = TASK_WITH_DESCRIPTION + "WHERE t.project.id = :projectId AND t.completed = :completed",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.completed = :completed")
+    Page<TaskResponse> findResponsesByProjectIdAndCompleted(@Param("projectId") Long projectId,
+                                                            @Param("completed") Boolean completed,
+                                                            Pageable pageable);
+    
+    @Query(value = TASK_WITHOUT_DESCRIPTION + "WHERE t.project.id = :projectId AND t.completed = :completed",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.completed = :completed")
+    Page<TaskResponse> findResponsesWithoutDescriptionByProjectIdAndCompleted(@Param("projectId") Long projectId,
+                                                                              @Param("completed") Boolean completed,
+                                                                              Pageable pageable);
+    
+    /**
+     * First {@code limit} tasks (by id) of every project of the user, without descriptions, in one statement.
+     * The lateral subquery reads only the first rows of each project off idx_tasks_project_id instead of
+     * ranking every task of the user (HQL has no CROSS JOIN over a subquery; this renders as JOIN LATERAL ... ON true).
+     */
+    @Query("SELECT new com.taskmanager.dtos.TaskResponse(pt.id, pt.title, CAST(NULL AS String), " +
+           "pt.dueDate, pt.completed, p.id) " +
+           "FROM Project p JOIN LATERAL (" +
+           "  SELECT t.id AS id, t.title AS title, t.dueDate AS dueDate, t.completed AS completed " +
+           "  FROM Task t WHERE t.project.id = p.id ORDER BY t.id LIMIT :limit) pt " +
+           "WHERE p.user.id = :userId AND p.deletedAt IS NULL ORDER BY p.id, pt.id")
+    List<TaskResponse> findFirstTasksPerProject(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.project.user.id = :userId AND t.project.deletedAt IS NULL")
+    Optional<Task> findOwnedById(@Param("id") Long id, @Param("userId") Long userId);
+    
+    @Query(TASK_RESPONSE + "WHERE t.id = :id AND t.project.user.id = :userId AND t.project.deletedAt IS NULL")
+    Optional<TaskResponse> findOwnedResponseById(@Param("id") Long id,
+                                                 @Param("userId") Long userId,
+                                                 @Param("includeDescription") boolean includeDescription);
+    
+    String DUE_BETWEEN = "WHERE t.project.user.id = :userId AND t.project.deletedAt IS NULL " +
+            "AND t.completed IN :completed AND t.dueDate BETWEEN :from AND :to ";
+    
+    String DUE_BETWEEN_COUNT = "SELECT COUNT(t) FROM Task t " + DUE_BETWEEN;
+    
+    /**
+     * Tasks of all the user's projects due in the range, by due date. Each project is one range
+     * scan of idx_tasks_project_completed_due per completed value.
+     */
+    default Page<TaskResponse> findDueBetween(Long userId, Collection<Boolean> completed, LocalDate from, LocalDate to,
+                                              boolean includeDescription, Pageable pageable) {
+        return includeDescription
+                ? findDueBetween(userId, completed, from, to, pageable)
+                : findDueBetweenWithoutDescription(userId, completed, from, to, pageable);
+    }
+    
+    @Query(value = TASK_WITH_DESCRIPTION + DUE_BETWEEN + "ORDER BY t.dueDate, t.id", countQuery = DUE_BETWEEN_COUNT)
+    Page<TaskResponse> findDueBetween(@Param("userId") Long userId,
+                                      @Param("completed") Collection<Boolean> completed,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to,
+                                      Pageable pageable);
+    
+    @Query(value = TASK_WITHOUT_DESCRIPTION + DUE_BETWEEN + "ORDER BY t.dueDate, t.id", countQuery = DUE_BETWEEN_COUNT)
+    Page<TaskResponse> findDueBetweenWithoutDescription(@Param("userId") Long userId,
+                                                        @Param("completed") Collection<Boolean> completed,
+                                                        @Param("from") LocalDate from,
+                                                        @Param("to") LocalDate to,
+                                                        Pageable pageable);
+    
+    /**
+     * Same as findDueBetween without the count, for the calendar.
+     */
+    @Query(TASK_RESPONSE + DUE_BETWEEN + "ORDER BY t.dueDate, t.id")
+    List<TaskResponse> findAllDueBetween(@Param("userId") Long userId,
+                                         @Param("completed") Collection<Boolean> completed,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         @Param("includeDescription") boolean includeDescription,
+                                         Pageable pageable);
+    
+    String OVERDUE = "WHERE t.project.user.id = :userId AND t.project.deletedAt IS NULL " +
+            "AND t.completed = false AND t.dueDate < :today ";
+    
+    default Page<TaskResponse> findOverdue(Long userId, LocalDate today, boolean includeDescription, Pageable pageable) {
+        return includeDescription
+                ? findOverdue(userId, today, pageable)
+                : findOverdueWithoutDescription(userId, today, pageable);
+    }
+    
+    @Query(value = TASK_WITH_DESCRIPTION + OVERDUE + "ORDER BY t.dueDate, t.id",
+           countQuery = "SELECT COUNT(t) FROM Task t " + OVERDUE)
+    Page<TaskResponse> findOverdue(@Param("userId") Long userId, @Param("today") LocalDate today, Pageable pageable);
+    
+    @Query(value = TASK_WITHOUT_DESCRIPTION + OVERDUE + "ORDER BY t.dueDate, t.id",
+           countQuery = "SELECT COUNT(t) FROM Task t " + OVERDUE)
+    Page<TaskResponse> findOverdueWithoutDescription(@Param("userId") Long userId,
+                                                     @Param("today") LocalDate today,
+                                                     Pageable pageable);
+    
+    /**
+     * Tasks of the user's projects changed after the position, oldest first.
+     */
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.dueDate AS dueDate, " +
+           "t.completed AS completed, t.project.id AS projectId, t.updatedAt AS updatedAt " +
+           "FROM Task t WHERE t.project.user.id = :userId AND t.project.deletedAt IS NULL " +
+           "AND (t.updatedAt > :after OR (t.updatedAt = :after AND t.id > :afterId)) " +
+           "ORDER BY t.updatedAt, t.id")
+    List<TaskChangeView> findChangedSince(@Param("userId") Long userId,
+                                          @Param("after") Instant after,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+    
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.project.user.id = :userId AND t.project.deletedAt IS NULL")
+    List<Task> findOwnedByIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+    
+    /**
+     * Deletes up to {@code limit} tasks of the project in one short transaction, so purging a large
+     * project never holds locks for long. Returns the number deleted, 0 once the project is empty.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tasks"))
+    @Query(value = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE project_id = :projectId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteChunkByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
+    
+    @Query(value = "SELECT t.* FROM tasks t WHERE t.project_id = :projectId AND " + SEARCH_MATCH + SEARCH_RANK,
+           countQuery = "SELECT COUNT(*) FROM tasks t WHERE t.project_id = :projectId AND " + SEARCH_MATCH,
+           nativeQuery = true)
+    Page<Task> searchInProject(@Param("projectId") Long projectId,
+                               @Param("query") String query,
+                               @Param("completed") Boolean completed,
+                               Pageable pageable);
+    
+    @Query(value = "SELECT t.* FROM tasks t JOIN projects p ON p.id = t.project_id " +
+                   "WHERE p.user_id = :userId AND p.deleted_at IS NULL AND " + SEARCH_MATCH + SEARCH_RANK,
+           countQuery = "SELECT COUNT(*) FROM tasks t JOIN projects p ON p.id = t.project_id " +
+                        "WHERE p.user_id = :userId AND p.deleted_at IS NULL AND " + SEARCH_MATCH,
+           nativeQuery = true)
+    Page<Task> searchInUserProjects(@Param("userId") Long userId,
+                                    @Param("query") String query,
+                                    @Param("completed") Boolean completed,
+                                    Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.dtos.TaskResponse;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+    
+    /**
+     * Returns up to {@code limit} tasks of the project positioned after the cursor (or from the start when null),
+     * without their description unless asked for.
+     */
+    List<TaskResponse> findKeysetPage(Long projectId, Boolean completed, String sortBy, boolean descending,
+                                      KeysetCursor after, int limit, boolean includeDescription);
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.models.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "title", "dueDate", "completed");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TaskResponse> findKeysetPage(Long projectId, Boolean completed, String sortBy, boolean descending,
+                                             KeysetCursor after, int limit, boolean includeDescription) {
+        return KeysetQuerySupport.findPage(entityManager, Task.class, TaskResponse.class,
+                (cb, root) -> cb.construct(TaskResponse.class,
+                        root.get("id"),
+                        root.get("title"),
+                        includeDescription ? root.<String>get("description") : cb.nullLiteral(String.class),
+                        root.get("dueDate"),
+                        root.get("completed"),
+                        root.get("project").get("id")),
+                SORTABLE_FIELDS, sortBy, descending, after, limit,
+                (cb, root) -> {
+                    List<Predicate> predicates = new ArrayList<>();
+                    predicates.add(cb.equal(root.get("project").get("id"), projectId));
+                    if (completed != null) {
+                        predicates.add(cb.equal(root.get("completed"), completed));
+                    }
+                    return predicates;
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.models.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    
+    @Query("SELECT t FROM Tombstone t WHERE t.userId = :userId " +
+           "AND (t.deletedAt > :after OR (t.deletedAt = :after AND t.id > :afterId)) " +
+           "ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findChangedSince(@Param("userId") Long userId,
+                                     @Param("after") Instant after,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.repositories;
+
+import com.taskmanager.models.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * Looks the user up by its natural id, resolved through the natural-id and entity caches when warm.
+     * Deliberately not read-only: authentication must never be routed to a lagging replica.
+     */
+    @Transactional
+    Optional<User> findByEmail(String email);
+}
@@ -1,5 +1,9 @@
 package com.taskmanager.security;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,11 +13,13 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,30 +30,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer cacheHitTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+    
+    @PostConstruct
+    void init() {
+        cacheHitTimer = verificationTimer("cache_hit");
+        verifiedTimer = verificationTimer("verified");
+        rejectedTimer = verificationTimer("rejected");
+    }
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String email = null;
         String jwt = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            try {
-                email = jwtUtil.extractEmail(jwt);
-            } catch (Exception e) {
-                // Token is invalid
-            }
         }
         
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            long start = System.nanoTime();
+            AuthenticatedUser principal = principalCache.get(jwt);
+            Timer timer = cacheHitTimer;
+            if (principal == null) {
+                principal = resolvePrincipal(jwt);
+                timer = principal != null ? verifiedTimer : rejectedTimer;
+            }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
@@ -55,4 +79,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private AuthenticatedUser resolvePrincipal(String jwt) {
+        TokenClaims claims;
+        try {
+            // Single parse: verifies the signature and the expiration in one go
+            claims = jwtUtil.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token is invalid
+            return null;
+        }
+        
+        AuthenticatedUser principal;
+        if (claims.userId() != null) {
+            principal = new AuthenticatedUser(claims.userId(), claims.email(), null);
+        } else {
+            // Tokens issued before the user id claim existed still need one lookup
+            try {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(claims.email());
+                if (!(userDetails instanceof AuthenticatedUser authenticatedUser)) {
+                    return null;
+                }
+                principal = new AuthenticatedUser(authenticatedUser.getId(), claims.email(), null);
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        }
+        
+        principalCache.put(jwt, principal, claims.expiration());
+        return principal;
+    }
+    
+    private Timer verificationTimer(String outcome) {
+        return Timer.builder("jwt.verification")
+                .description("Time spent turning a bearer token into an authenticated principal")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
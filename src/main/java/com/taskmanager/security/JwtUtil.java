@@ -1,12 +1,15 @@
 package com.taskmanager.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,21 +18,50 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     
+    private static final String USER_ID_CLAIM = "uid";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        // The key and the parser are immutable and thread-safe, so derive them once
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
+    /**
+     * Verifies the token signature and expiration and returns its claims.
+     * Callers should hold on to the result instead of re-parsing the same token.
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        Date issuedAt = claims.getIssuedAt();
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
     }
     
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
     
+    public Long extractUserId(String token) {
+        return extractClaim(token, claims -> claims.get(USER_ID_CLAIM, Long.class));
+    }
+    
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -40,34 +72,28 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseSignedClaims(token).getPayload();
     }
     
-    public String generateToken(String email) {
+    public String generateToken(String email, Long userId) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
         return createToken(claims, email);
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
     
     public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+        final TokenClaims claims = parseToken(token);
+        return (claims.email().equals(email) && !claims.isExpired());
     }
 }
@@ -0,0 +1,71 @@
+package com.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of principals resolved from verified tokens, keyed by the SHA-256 digest
+ * of the token so raw tokens are never retained. A hit skips signature verification entirely.
+ * Entries expire at the token expiration or after the configured TTL, whichever comes first.
+ */
+@Component
+public class PrincipalCache {
+    
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${jwt.principal-cache.ttl:300000}")
+    private long ttl;
+    
+    // Caffeine reads without a global lock, every authenticated request goes through here
+    private Cache<String, Entry> entries;
+    
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+    
+    public AuthenticatedUser get(String token) {
+        String key = digest(token);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        // Tokens expiring before the TTL runs out
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.invalidate(key);
+            return null;
+        }
+        return entry.principal();
+    }
+    
+    public void put(String token, AuthenticatedUser principal, Instant tokenExpiration) {
+        long expiresAt = Math.min(tokenExpiration.toEpochMilli(), System.currentTimeMillis() + ttl);
+        entries.put(digest(token), new Entry(principal, expiresAt));
+    }
+    
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private record Entry(AuthenticatedUser principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the claims of a token whose signature has already been verified.
+ */
+public record TokenClaims(String email, Long userId, Instant issuedAt, Instant expiration) {
+    
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+}
@@ -5,16 +5,20 @@ import com.taskmanager.dtos.LoginResponse;
 import com.taskmanager.dtos.RegisterRequest;
 import com.taskmanager.models.User;
 import com.taskmanager.repositories.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
 import com.taskmanager.security.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
     
@@ -32,7 +36,24 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
-    public LoginResponse register(RegisterRequest registerRequest) {
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    /**
+     * Registers the user on the password hashing pool; the request thread is released meanwhile.
+     */
+    public CompletableFuture<LoginResponse> register(RegisterRequest registerRequest) {
+        return passwordHashingExecutor.submit(() -> doRegister(registerRequest));
+    }
+    
+    /**
+     * Authenticates on the password hashing pool; the request thread is released meanwhile.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest loginRequest) {
+        return passwordHashingExecutor.submit(() -> doLogin(loginRequest));
+    }
+    
+    private LoginResponse doRegister(RegisterRequest registerRequest) {
         try {
             logger.info("Registration attempt for email: {}", registerRequest.getEmail());
             
@@ -51,7 +72,7 @@ public class AuthService {
             logger.info("User registered successfully: {}", registerRequest.getEmail());
             
             // Generate token and return
-            String token = jwtUtil.generateToken(user.getEmail());
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId());
             return new LoginResponse(token, user.getEmail());
         } catch (Exception e) {
             logger.error("Registration error for email {}: {}", registerRequest.getEmail(), e.getMessage(), e);
@@ -59,21 +80,20 @@ public class AuthService {
         }
     }
     
-    public LoginResponse login(LoginRequest loginRequest) {
+    private LoginResponse doLogin(LoginRequest loginRequest) {
         try {
             logger.info("Login attempt for email: {}", loginRequest.getEmail());
             
-            authenticationManager.authenticate(
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
             );
             
-            User user = userRepository.findByEmail(loginRequest.getEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            String token = jwtUtil.generateToken(user.getEmail());
+            // The principal already carries the user id, no need to load the user again
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+            String token = jwtUtil.generateToken(principal.getUsername(), principal.getId());
             
             logger.info("Login successful for email: {}", loginRequest.getEmail());
-            return new LoginResponse(token, user.getEmail());
+            return new LoginResponse(token, principal.getUsername());
         } catch (AuthenticationException e) {
             logger.error("Login failed for email {}: {}", loginRequest.getEmail(), e.getMessage());
             throw new RuntimeException("Invalid credentials");
@@ -0,0 +1,428 @@
+package com.taskmanager.services;
+
+import com.taskmanager.dtos.ChangeEventResponse;
+import com.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed task and project changes out to the Server-Sent Events streams of their owner.
+ * <p>
+ * Each user keeps a short history of recent events so a reconnecting client can resume from
+ * its Last-Event-ID. Each connection has a bounded queue drained by a small sender pool, so a
+ * slow client never blocks the writer that published the change. A connection whose queue
+ * overflows is closed, and the client catches up from the history when it reconnects. When the
+ * history can't cover the gap, the client gets a {@code resync} event and should reload its lists.
+ * <p>
+ * A send blocks on the client's socket. One that takes longer than {@code events.send-timeout}
+ * closes its connection, and the pool gets an extra thread for as long as the stuck write holds
+ * on to its sender, so stalled clients can't hold back the events of everyone else.
+ */
+@Service
+public class ChangeEventBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+    
+    private static final StoredEvent HEARTBEAT = new StoredEvent(null, null, null);
+    
+    // Event ids from before a restart can't be resumed; the boot id tells them apart
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger openConnections = new AtomicInteger();
+    
+    // Every connection until its emitter completes, including those already dropped from their channel
+    private final Set<Connection> liveConnections = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${events.replay-buffer-size:256}")
+    private int replayBufferSize;
+    
+    @Value("${events.connection-buffer-size:64}")
+    private int connectionBufferSize;
+    
+    @Value("${events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+    
+    @Value("${events.timeout:1800000}")
+    private long timeoutMillis;
+    
+    @Value("${events.replay-retention:300000}")
+    private long replayRetentionMillis;
+    
+    @Value("${events.sender-threads:4}")
+    private int senderThreads;
+    
+    @Value("${events.send-timeout:5000}")
+    private long sendTimeoutMillis;
+    
+    private ThreadPoolExecutor sender;
+    // Sender threads stuck in a send that was given up on, each replaced by an extra pool thread
+    private int abandonedSends;
+    private Counter overflowedConnections;
+    private Counter stalledConnections;
+    
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Only the core size is used; it grows past senderThreads while sends are abandoned
+        sender = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        Gauge.builder("events.connections", openConnections, AtomicInteger::get)
+                .description("Open Server-Sent Events streams")
+                .register(meterRegistry);
+        overflowedConnections = Counter.builder("events.connections.overflowed")
+                .description("Streams closed because the client didn't keep up with its events")
+                .register(meterRegistry);
+        stalledConnections = Counter.builder("events.connections.stalled")
+                .description("Streams closed because a send to the client took longer than the send timeout")
+                .register(meterRegistry);
+        Gauge.builder("events.senders.abandoned", this, ChangeEventBroadcaster::currentAbandonedSends)
+                .description("Sender threads still stuck in a send that timed out")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        for (UserChannel channel : channels.values()) {
+            synchronized (channel) {
+                new ArrayList<>(channel.connections).forEach(Connection::close);
+            }
+        }
+        sender.shutdown();
+    }
+    
+    /**
+     * Opens a stream of the current user's changes, replaying what happened after {@code lastEventId}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+    
+    // Tests hand in emitters that stand for slow clients
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Long userId = getCurrentUserId();
+        
+        while (true) {
+            UserChannel channel = channels.computeIfAbsent(userId, id -> new UserChannel(sequence.get()));
+            synchronized (channel) {
+                if (channel.removed) {
+                    // Dropped by the cleanup between lookup and lock, take the fresh one
+                    continue;
+                }
+                if (channel.connections.size() >= maxConnectionsPerUser) {
+                    // The oldest tab is the most likely to be forgotten
+                    Connection oldest = channel.connections.get(0);
+                    remove(channel, oldest);
+                    oldest.close();
+                }
+                Connection connection = new Connection(channel, emitter);
+                channel.connections.add(connection);
+                liveConnections.add(connection);
+                channel.lastActivity = System.currentTimeMillis();
+                
+                emitter.onCompletion(() -> {
+                    remove(channel, connection);
+                    liveConnections.remove(connection);
+                });
+                emitter.onTimeout(connection::close);
+                emitter.onError(error -> connection.close());
+                
+                openConnections.incrementAndGet();
+                connection.offer(HEARTBEAT);
+                replay(channel, connection, lastEventId);
+            }
+            return emitter;
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntityChange(EntityChangeEvent event) {
+        UserChannel channel = channels.get(event.userId());
+        if (channel == null) {
+            // Nobody is listening and nobody can resume, nothing to keep
+            return;
+        }
+        
+        synchronized (channel) {
+            long seq = sequence.incrementAndGet();
+            StoredEvent stored = new StoredEvent(bootId + "-" + seq, event.entity(),
+                    new ChangeEventResponse(event.action(), event.id(), event.projectId()));
+            
+            channel.history.addLast(new HistoryEntry(seq, stored));
+            if (channel.history.size() > replayBufferSize) {
+                channel.floor = channel.history.removeFirst().seq();
+            }
+            channel.lastSeq = seq;
+            channel.lastActivity = System.currentTimeMillis();
+            
+            for (Connection connection : new ArrayList<>(channel.connections)) {
+                if (!connection.offer(stored)) {
+                    overflowedConnections.increment();
+                    remove(channel, connection);
+                    connection.close();
+                }
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        channels.forEach((userId, channel) -> {
+            synchronized (channel) {
+                // A full queue already has data waiting, the client doesn't need a heartbeat on top
+                channel.connections.forEach(connection -> connection.offer(HEARTBEAT));
+                
+                if (channel.connections.isEmpty() && now - channel.lastActivity > replayRetentionMillis) {
+                    channel.removed = true;
+                    channels.remove(userId, channel);
+                }
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${events.send-check-interval:1000}")
+    public void closeStalledConnections() {
+        long now = System.currentTimeMillis();
+        for (Connection connection : liveConnections) {
+            if (connection.abandonStalledSend(now)) {
+                stalledConnections.increment();
+                resizeSender(1);
+                remove(connection.channel, connection);
+                connection.close();
+            }
+        }
+    }
+    
+    private void replay(UserChannel channel, Connection connection, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        
+        long lastSeq = parseSequence(lastEventId);
+        List<StoredEvent> missed = new ArrayList<>();
+        if (lastSeq >= channel.floor) {
+            for (HistoryEntry entry : channel.history) {
+                if (entry.seq() > lastSeq) {
+                    missed.add(entry.event());
+                }
+            }
+        }
+        
+        // Keep room in the queue for live events; past that a reload is cheaper than a replay
+        if (lastSeq < channel.floor || missed.size() >= connectionBufferSize - 1) {
+            connection.offer(new StoredEvent(bootId + "-" + channel.lastSeq, "resync", Map.of()));
+            return;
+        }
+        missed.forEach(connection::offer);
+    }
+    
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private void remove(UserChannel channel, Connection connection) {
+        synchronized (channel) {
+            if (channel.connections.remove(connection)) {
+                openConnections.decrementAndGet();
+                channel.lastActivity = System.currentTimeMillis();
+            }
+        }
+    }
+    
+    private synchronized void resizeSender(int delta) {
+        abandonedSends += delta;
+        sender.setCorePoolSize(senderThreads + abandonedSends);
+    }
+    
+    private synchronized int currentAbandonedSends() {
+        return abandonedSends;
+    }
+    
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return principal.getId();
+    }
+    
+    private record StoredEvent(String id, String name, Object data) {
+        
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+    
+    private record HistoryEntry(long seq, StoredEvent event) {
+    }
+    
+    /**
+     * Open connections and recent history of one user. Guarded by its own monitor.
+     */
+    private static final class UserChannel {
+        final List<Connection> connections = new ArrayList<>();
+        final ArrayDeque<HistoryEntry> history = new ArrayDeque<>();
+        // Events up to this sequence may have been missed: the channel didn't exist yet or they fell out of the history
+        long floor;
+        long lastSeq;
+        long lastActivity = System.currentTimeMillis();
+        boolean removed;
+        
+        UserChannel(long floor) {
+            this.floor = floor;
+            this.lastSeq = floor;
+        }
+    }
+    
+    private final class Connection {
+        private static final long NOT_SENDING = 0;
+        private static final long ABANDONED = -1;
+        
+        private final UserChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StoredEvent> queue = new ArrayBlockingQueue<>(connectionBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        // Start time of the send in progress, NOT_SENDING or ABANDONED
+        private final AtomicLong sendStartedAt = new AtomicLong(NOT_SENDING);
+        
+        Connection(UserChannel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+        
+        /**
+         * Queues the event for sending; false when the client is too far behind.
+         */
+        boolean offer(StoredEvent event) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!queue.offer(event)) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+        
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                // A send in progress holds the emitter's lock, the sender completes it when done
+                if (!draining.get()) {
+                    complete();
+                }
+            }
+        }
+        
+        /**
+         * Gives up on a send that has been running for longer than the send timeout; true when it did.
+         */
+        boolean abandonStalledSend(long now) {
+            long started = sendStartedAt.get();
+            return started > 0 && now - started > sendTimeoutMillis
+                    && sendStartedAt.compareAndSet(started, ABANDONED);
+        }
+        
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                liveConnections.remove(this);
+                emitter.complete();
+            }
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                StoredEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter's error callback finishes the cleanup
+                logger.debug("Event stream closed while sending: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                // close() left the emitter to us if it saw this drain running
+                complete();
+            } else if (!queue.isEmpty()) {
+                // An event may have been queued after the last poll but before draining was reset
+                scheduleDrain();
+            }
+        }
+        
+        private void send(StoredEvent event) throws IOException {
+            long started = System.currentTimeMillis();
+            sendStartedAt.set(started);
+            try {
+                emitter.send(event.toSse());
+            } finally {
+                if (!sendStartedAt.compareAndSet(started, NOT_SENDING)) {
+                    // Abandoned while blocked: the extra thread started in its place can go
+                    sendStartedAt.set(NOT_SENDING);
+                    resizeSender(-1);
+                }
+            }
+        }
+    }
+}
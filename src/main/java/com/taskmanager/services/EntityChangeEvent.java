@@ -0,0 +1,25 @@
+package com.taskmanager.services;
+
+/**
+ * Published by the services when a task or project of a user changes. Delivered to that user's
+ * event streams only once the surrounding transaction has committed.
+ */
+public record EntityChangeEvent(Long userId, String entity, String action, Long id, Long projectId) {
+    
+    public static final String TASK = "task";
+    public static final String PROJECT = "project";
+    
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    // Several tasks of the project changed at once (batch operations, imports)
+    public static final String TASKS_CHANGED = "tasks_changed";
+    
+    public static EntityChangeEvent task(Long userId, String action, Long taskId, Long projectId) {
+        return new EntityChangeEvent(userId, TASK, action, taskId, projectId);
+    }
+    
+    public static EntityChangeEvent project(Long userId, String action, Long projectId) {
+        return new EntityChangeEvent(userId, PROJECT, action, projectId, projectId);
+    }
+}
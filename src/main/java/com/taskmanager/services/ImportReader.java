@@ -0,0 +1,185 @@
+package com.taskmanager.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record reader of the task import. Fills its own buffer from the decoder and scans it for the
+ * record boundaries, copying each run of plain characters at once: BufferedReader.read() would
+ * take a lock for every character of the upload.
+ * <p>
+ * A record over the length limits is read to its end without being kept and reported with a
+ * RecordTooLongException, so the next read starts at the following record.
+ */
+final class ImportReader {
+    
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    
+    ImportReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+    
+    /**
+     * Reads the next RFC 4180 record, honouring quoted fields that contain separators or line
+     * breaks. Returns null at the end of the input. The record length leaves out the line breaks
+     * outside quotes.
+     */
+    List<String> readCsvRow(int maxFieldLength, int maxRecordLength) throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        long recordLength = 0;
+        String tooLong = null;
+        
+        while (fill()) {
+            int start = position;
+            int end = start;
+            if (inQuotes) {
+                while (end < limit && buffer[end] != '"') {
+                    end++;
+                }
+            } else {
+                while (end < limit && !isCsvDelimiter(buffer[end])) {
+                    end++;
+                }
+            }
+            position = end;
+            recordLength += end - start;
+            if (tooLong == null) {
+                field.append(buffer, start, end - start);
+                tooLong = checkCsvLengths(field, recordLength, maxFieldLength, maxRecordLength);
+            }
+            if (position == limit) {
+                // The run goes on in the next buffer
+                continue;
+            }
+            
+            char c = buffer[position++];
+            if (!inQuotes && c == '\n') {
+                break;
+            }
+            if (inQuotes || c != '\r') {
+                recordLength++;
+            }
+            if (inQuotes) {
+                // c is a quote: either an escaped one or the end of the quoted part
+                if (fill() && buffer[position] == '"') {
+                    position++;
+                    recordLength++;
+                    if (tooLong == null) {
+                        field.append('"');
+                    }
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                if (tooLong == null) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+            }
+            // A carriage return outside quotes belongs to the line break and is dropped
+            
+            if (tooLong == null) {
+                tooLong = checkCsvLengths(field, recordLength, maxFieldLength, maxRecordLength);
+            }
+            if (tooLong != null) {
+                // Keep scanning for the end of the record, but stop holding on to its content
+                fields.clear();
+                field.setLength(0);
+            }
+        }
+        
+        if (tooLong != null) {
+            throw new RecordTooLongException(tooLong);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * Reads the next line without its line break (\n or \r\n). Returns null at the end of the input.
+     */
+    String readLine(int maxLength) throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        
+        StringBuilder line = new StringBuilder();
+        boolean tooLong = false;
+        
+        while (fill()) {
+            int start = position;
+            int end = start;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            position = end;
+            if (!tooLong) {
+                line.append(buffer, start, end - start);
+                // One more for the carriage return of a \r\n, stripped below
+                if (line.length() > maxLength + 1) {
+                    tooLong = true;
+                    line.setLength(0);
+                }
+            }
+            if (position < limit) {
+                position++;
+                break;
+            }
+        }
+        
+        if (!tooLong && line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        if (tooLong || line.length() > maxLength) {
+            throw new RecordTooLongException("Line longer than " + maxLength + " characters");
+        }
+        return line.toString();
+    }
+    
+    /**
+     * Makes sure unread characters are buffered; false at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+    
+    private static boolean isCsvDelimiter(char c) {
+        return c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    
+    private static String checkCsvLengths(StringBuilder field, long recordLength, int maxFieldLength, int maxRecordLength) {
+        if (recordLength > maxRecordLength) {
+            return "Record longer than " + maxRecordLength + " characters";
+        }
+        if (field.length() > maxFieldLength) {
+            return "Field longer than " + maxFieldLength + " characters";
+        }
+        return null;
+    }
+}
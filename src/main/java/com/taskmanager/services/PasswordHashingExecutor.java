@@ -0,0 +1,105 @@
+package com.taskmanager.services;
+
+import com.taskmanager.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt-heavy authentication work (login, register) on a small fixed pool with a bounded
+ * queue, so a login storm can use at most a few cores and never holds request threads. Work
+ * that doesn't fit in the queue is rejected right away with 429; work that waited in the
+ * queue longer than clients are likely to wait is dropped with 503.
+ */
+@Component
+public class PasswordHashingExecutor {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+    
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${auth.hashing.max-queue-wait:2000}")
+    private long maxQueueWaitMillis;
+    
+    @Value("${auth.hashing.retry-after:2}")
+    private long retryAfterSeconds;
+    
+    private ThreadPoolExecutor executor;
+    private Counter rejectedQueueFull;
+    private Counter rejectedQueueTimeout;
+    
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        rejectedQueueFull = rejectedCounter("queue_full");
+        rejectedQueueTimeout = rejectedCounter("queue_timeout");
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (System.nanoTime() - enqueuedAt > TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis)) {
+                    // The client has most likely given up; hashing now would only delay the requests behind it
+                    rejectedQueueTimeout.increment();
+                    result.completeExceptionally(new ServiceOverloadedException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Authentication is temporarily overloaded, retry later", retryAfterSeconds));
+                    return;
+                }
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new ServiceOverloadedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many authentication requests, retry later", retryAfterSeconds);
+        }
+        return result;
+    }
+    
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("auth.hashing.rejected")
+                .description("Login/register requests shed because the password hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
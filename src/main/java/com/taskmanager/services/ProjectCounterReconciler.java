@@ -0,0 +1,53 @@
+package com.taskmanager.services;
+
+import com.taskmanager.repositories.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically recounts tasks per project and repairs any drift in the
+ * total/completed counters maintained by TaskService. Works through the
+ * projects table in id ranges, each locked and recounted in its own short
+ * transaction.
+ */
+@Component
+public class ProjectCounterReconciler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProjectCounterReconciler.class);
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${projects.counters.reconcile-batch-size:500}")
+    private long batchSize;
+    
+    @Scheduled(initialDelayString = "${projects.counters.reconcile-initial-delay:60000}",
+               fixedDelayString = "${projects.counters.reconcile-interval:3600000}")
+    public void reconcile() {
+        long maxId = projectRepository.findMaxId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int repaired = 0;
+        
+        for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+            long from = afterId;
+            long upTo = afterId + batchSize;
+            repaired += transaction.execute(status -> {
+                projectRepository.lockIdRange(from, upTo);
+                return projectRepository.reconcileTaskCounters(from, upTo);
+            });
+        }
+        
+        if (repaired > 0) {
+            logger.warn("Repaired task counters for {} project(s)", repaired);
+        }
+    }
+}
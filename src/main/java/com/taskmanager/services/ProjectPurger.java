@@ -0,0 +1,64 @@
+package com.taskmanager.services;
+
+import com.taskmanager.repositories.ProjectRepository;
+import com.taskmanager.repositories.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Removes the rows of projects deleted asynchronously (see ProjectService.deleteProject).
+ * Tasks go in chunks, each in its own short transaction, then the project row itself.
+ * A purge interrupted by a restart simply continues on the next run.
+ */
+@Component
+public class ProjectPurger {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProjectPurger.class);
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Value("${projects.purge.chunk-size:5000}")
+    private int chunkSize;
+    
+    @Value("${projects.purge.batch-size:10}")
+    private int batchSize;
+    
+    @Scheduled(initialDelayString = "${projects.purge.initial-delay:30000}",
+               fixedDelayString = "${projects.purge.interval:10000}")
+    public void purge() {
+        List<Long> projectIds = projectRepository.findDeletedIds(PageRequest.of(0, batchSize));
+        for (Long projectId : projectIds) {
+            try {
+                purge(projectId);
+            } catch (DataAccessException e) {
+                // Another instance may be purging the same project; whatever is left is retried next run
+                logger.warn("Purge of project {} interrupted: {}", projectId, e.getMessage());
+            }
+        }
+    }
+    
+    private void purge(Long projectId) {
+        long tasks = 0;
+        int deleted;
+        do {
+            deleted = taskRepository.deleteChunkByProjectId(projectId, chunkSize);
+            tasks += deleted;
+        } while (deleted > 0);
+        
+        // Through the entity so the second-level cache drops it; no tasks are left to cascade to
+        projectRepository.deleteById(projectId);
+        logger.info("Purged project {} and its {} task(s)", projectId, tasks);
+    }
+}
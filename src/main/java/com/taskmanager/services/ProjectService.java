@@ -1,65 +1,104 @@
 package com.taskmanager.services;
 
+import com.taskmanager.dtos.CursorPageResponse;
 import com.taskmanager.dtos.PageResponse;
 import com.taskmanager.dtos.ProjectRequest;
 import com.taskmanager.dtos.ProjectResponse;
 import com.taskmanager.dtos.ProgressResponse;
+import com.taskmanager.dtos.ProjectSummaryResponse;
+import com.taskmanager.dtos.TaskResponse;
 import com.taskmanager.models.Project;
-import com.taskmanager.models.Task;
-import com.taskmanager.models.User;
+import com.taskmanager.models.Tombstone;
+import com.taskmanager.repositories.KeysetCursor;
+import com.taskmanager.repositories.ProjectCounters;
+import com.taskmanager.repositories.ProjectListStamp;
 import com.taskmanager.repositories.ProjectRepository;
+import com.taskmanager.repositories.ProjectSummaryView;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.repositories.TombstoneRepository;
 import com.taskmanager.repositories.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ProjectService {
     
+    private static final int MAX_DASHBOARD_TASKS_PER_PROJECT = 50;
+    
     @Autowired
     private ProjectRepository projectRepository;
     
     @Autowired
     private UserRepository userRepository;
     
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${projects.delete.async-threshold:10000}")
+    private int asyncDeleteThreshold;
+    
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return principal.getId();
     }
     
-    public List<ProjectResponse> getAllProjects() {
-        User currentUser = getCurrentUser();
-        List<Project> projects = projectRepository.findByUserId(currentUser.getId());
+    /**
+     * ETag for the caller's project list, computed with one aggregate query.
+     * Lists without descriptions are a different representation and get their own tag. Weak because
+     * the same data is served as JSON, Smile or CBOR, possibly compressed.
+     */
+    @Transactional(readOnly = true)
+    public String getProjectsEtag(boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        ProjectListStamp stamp = projectRepository.findListStampByUserId(currentUserId);
         
-        return projects.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return "W/\"" + stamp.getProjectCount() + "-" + stamp.getMaxId() + "-" + stamp.getVersionSum() +
+                (includeDescription ? "" : "-summary") + "\"";
     }
     
-    public PageResponse<ProjectResponse> getProjectsWithPagination(int page, int size, String sortBy, String sortDirection) {
-        User currentUser = getCurrentUser();
+    @Transactional(readOnly = true)
+    public List<ProjectResponse> getAllProjects(boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        return projectRepository.findResponsesByUserId(currentUserId, includeDescription);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<ProjectResponse> getProjectsWithPagination(int page, int size, String sortBy, String sortDirection,
+                                                                   boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
         
         Sort sort = sortDirection.equalsIgnoreCase("desc") 
                 ? Sort.by(sortBy).descending() 
                 : Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Project> projectPage = projectRepository.findByUserId(currentUser.getId(), pageable);
-        
-        List<ProjectResponse> content = projectPage.getContent().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        Page<ProjectResponse> projectPage = projectRepository.findResponsesByUserId(currentUserId, includeDescription, pageable);
         
         return new PageResponse<>(
-                content,
+                projectPage.getContent(),
                 projectPage.getNumber(),
                 projectPage.getSize(),
                 projectPage.getTotalElements(),
@@ -69,72 +108,144 @@ public class ProjectService {
         );
     }
     
-    public ProjectResponse getProjectById(Long id) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProjectResponse> getProjectsWithCursor(String cursor, int size, String sortBy,
+                                                                    String sortDirection, boolean includeCount,
+                                                                    boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        
+        boolean descending = sortDirection.equalsIgnoreCase("desc");
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        
+        // Fetch one extra row to know whether another page follows
+        List<ProjectResponse> projects = projectRepository.findKeysetPage(
+                currentUserId, sortBy, descending, after, size + 1, includeDescription);
+        
+        boolean hasNext = projects.size() > size;
+        if (hasNext) {
+            projects = projects.subList(0, size);
+        }
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
+        String nextCursor = null;
+        if (hasNext) {
+            ProjectResponse last = projects.get(projects.size() - 1);
+            Object lastValue = sortBy.equals("title") ? last.getTitle() : last.getId();
+            nextCursor = KeysetCursor.of(sortBy, descending, lastValue, last.getId()).encode();
         }
         
+        Long totalElements = includeCount ? projectRepository.countByUserIdAndDeletedAtIsNull(currentUserId) : null;
+        
+        return new CursorPageResponse<>(projects, size, nextCursor, hasNext, totalElements);
+    }
+    
+    /**
+     * Every project of the caller with its counts, and optionally its first tasks,
+     * in a constant number of queries.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectSummaryResponse> getDashboard(int tasksPerProject) {
+        Long currentUserId = getCurrentUserId();
+        List<ProjectSummaryView> summaries = projectRepository.findSummariesByUserId(currentUserId, LocalDate.now());
+        
+        Map<Long, List<TaskResponse>> tasksByProject = Map.of();
+        if (tasksPerProject > 0 && !summaries.isEmpty()) {
+            int limit = Math.min(tasksPerProject, MAX_DASHBOARD_TASKS_PER_PROJECT);
+            tasksByProject = taskRepository.findFirstTasksPerProject(currentUserId, limit).stream()
+                    .collect(Collectors.groupingBy(TaskResponse::getProjectId));
+        }
+        
+        List<ProjectSummaryResponse> dashboard = new ArrayList<>(summaries.size());
+        for (ProjectSummaryView summary : summaries) {
+            int totalTasks = summary.getTotalTasks();
+            int completedTasks = summary.getCompletedTasks();
+            double progressPercentage = totalTasks == 0 ? 0.0 : (completedTasks * 100.0) / totalTasks;
+            
+            dashboard.add(new ProjectSummaryResponse(
+                    summary.getId(),
+                    summary.getTitle(),
+                    summary.getDescription(),
+                    totalTasks,
+                    completedTasks,
+                    summary.getOverdueTasks(),
+                    progressPercentage,
+                    tasksByProject.getOrDefault(summary.getId(), List.of())
+            ));
+        }
+        return dashboard;
+    }
+    
+    @Transactional(readOnly = true)
+    public ProjectResponse getProjectById(Long id) {
+        Long currentUserId = getCurrentUserId();
+        Project project = projectRepository.findOwnedById(id, currentUserId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        
         return convertToResponse(project);
     }
     
+    @Transactional
     public ProjectResponse createProject(ProjectRequest request) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = getCurrentUserId();
         
         Project project = new Project();
         project.setTitle(request.getTitle());
         project.setDescription(request.getDescription());
-        project.setUser(currentUser);
+        project.setUser(userRepository.getReferenceById(currentUserId));
         
         Project savedProject = projectRepository.save(project);
+        eventPublisher.publishEvent(EntityChangeEvent.project(currentUserId, EntityChangeEvent.CREATED, savedProject.getId()));
         return convertToResponse(savedProject);
     }
     
+    @Transactional
     public ProjectResponse updateProject(Long id, ProjectRequest request) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+        Long currentUserId = getCurrentUserId();
+        Project project = projectRepository.findOwnedById(id, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
-        }
-        
         project.setTitle(request.getTitle());
         project.setDescription(request.getDescription());
         
         Project updatedProject = projectRepository.save(project);
+        eventPublisher.publishEvent(EntityChangeEvent.project(currentUserId, EntityChangeEvent.UPDATED, id));
         return convertToResponse(updatedProject);
     }
     
-    public void deleteProject(Long id) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+    /**
+     * Deletes the project with one statement; its tasks go through ON DELETE CASCADE. Projects with
+     * more than projects.delete.async-threshold tasks are only marked deleted here and disappear from
+     * every read at once, ProjectPurger removes their rows in the background.
+     *
+     * @return true when the rows are left to ProjectPurger
+     */
+    @Transactional
+    public boolean deleteProject(Long id) {
+        Long currentUserId = getCurrentUserId();
+        Project project = projectRepository.findOwnedById(id, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
+        Instant deletedAt = Instant.now();
+        boolean deferred = project.getTotalTasks() > asyncDeleteThreshold;
+        if (deferred) {
+            project.setDeletedAt(deletedAt);
+        } else {
+            projectRepository.delete(project);
         }
-        
-        projectRepository.delete(project);
+        // One tombstone for the project: clients drop its tasks along with it
+        tombstoneRepository.save(new Tombstone(null, EntityChangeEvent.PROJECT, id, id, currentUserId, deletedAt));
+        eventPublisher.publishEvent(EntityChangeEvent.project(currentUserId, EntityChangeEvent.DELETED, id));
+        return deferred;
     }
     
+    @Transactional(readOnly = true)
     public ProgressResponse getProjectProgress(Long id) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+        Long currentUserId = getCurrentUserId();
+        ProjectCounters counters = projectRepository.findCountersByIdAndUserId(id, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
-        }
-        
-        List<Task> tasks = project.getTasks();
-        int totalTasks = tasks.size();
-        int completedTasks = (int) tasks.stream()
-                .filter(Task::getCompleted)
-                .count();
+        // Counters are maintained incrementally by TaskService, no need to load the tasks
+        int totalTasks = counters.getTotalTasks();
+        int completedTasks = counters.getCompletedTasks();
         
         double progressPercentage = totalTasks == 0 ? 0.0 : (completedTasks * 100.0) / totalTasks;
         
@@ -0,0 +1,12 @@
+package com.taskmanager.services;
+
+/**
+ * Thrown by the import readers for a record over the size limits, once the whole record has been
+ * skipped: the next read starts at the following record, so the import reports it and goes on.
+ */
+class RecordTooLongException extends RuntimeException {
+    
+    RecordTooLongException(String message) {
+        super(message);
+    }
+}
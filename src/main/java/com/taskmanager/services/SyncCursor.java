@@ -0,0 +1,56 @@
+package com.taskmanager.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the merged change stream of GET /sync: modification time, then source
+ * (projects, tasks, deletions), then id. Clients only ever see the opaque encoded form.
+ */
+public record SyncCursor(Instant timestamp, int source, long id) implements Comparable<SyncCursor> {
+    
+    public static final int PROJECTS = 0;
+    public static final int TASKS = 1;
+    public static final int DELETIONS = 2;
+    
+    /**
+     * Before every change.
+     */
+    public static final SyncCursor START = new SyncCursor(Instant.EPOCH, PROJECTS, Long.MIN_VALUE);
+    
+    /**
+     * Id bound for querying one source: rows at the cursor's timestamp are only included
+     * when the source sorts after the cursor's, or past its id within the same source.
+     */
+    public long idAfter(int querySource) {
+        if (querySource == source) {
+            return id;
+        }
+        return querySource > source ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+    
+    @Override
+    public int compareTo(SyncCursor other) {
+        int byTime = timestamp.compareTo(other.timestamp);
+        if (byTime != 0) {
+            return byTime;
+        }
+        return source != other.source ? Integer.compare(source, other.source) : Long.compare(id, other.id);
+    }
+    
+    public String encode() {
+        String raw = timestamp + "\n" + source + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static SyncCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            return new SyncCursor(Instant.parse(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid sync cursor");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanager.services;
+
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.SyncResponse;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.dtos.TombstoneResponse;
+import com.taskmanager.repositories.ProjectRepository;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.repositories.TombstoneRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Changes to the caller's projects and tasks since a cursor. Each source is read with an index
+ * range scan starting at the cursor, so catching up costs in proportion to what changed.
+ */
+@Service
+public class SyncService {
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
+    @Value("${sync.max-batch-size:1000}")
+    private int maxBatchSize;
+    
+    // Longer than any write transaction and than the allowed replica lag
+    @Value("${sync.grace-period:5000}")
+    private long gracePeriodMillis;
+    
+    @Value("${sync.tombstone-retention:2592000000}")
+    private long tombstoneRetentionMillis;
+    
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return principal.getId();
+    }
+    
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(String since, int size) {
+        Long currentUserId = getCurrentUserId();
+        int limit = Math.max(1, Math.min(size, maxBatchSize));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        
+        SyncCursor from = since != null ? SyncCursor.decode(since) : SyncCursor.START;
+        if (since != null && from.timestamp().isBefore(now.minusMillis(tombstoneRetentionMillis))) {
+            // Deletions that old have been purged, the client can't be brought up to date incrementally
+            return new SyncResponse(List.of(), List.of(), List.of(), null, false, true);
+        }
+        
+        // Up to limit + 1 from each source, merged; the extra row tells whether more follows
+        Pageable batch = PageRequest.of(0, limit + 1);
+        List<Change> changes = new ArrayList<>();
+        
+        projectRepository.findChangedSince(currentUserId, from.timestamp(), from.idAfter(SyncCursor.PROJECTS), batch)
+                .forEach(project -> changes.add(new Change(
+                        new SyncCursor(project.getUpdatedAt(), SyncCursor.PROJECTS, project.getId()),
+                        new ProjectResponse(project.getId(), project.getTitle(), project.getDescription(),
+                                project.getUserId()))));
+        
+        taskRepository.findChangedSince(currentUserId, from.timestamp(), from.idAfter(SyncCursor.TASKS), batch)
+                .forEach(task -> changes.add(new Change(
+                        new SyncCursor(task.getUpdatedAt(), SyncCursor.TASKS, task.getId()),
+                        new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                                task.getCompleted(), task.getProjectId()))));
+        
+        tombstoneRepository.findChangedSince(currentUserId, from.timestamp(), from.idAfter(SyncCursor.DELETIONS), batch)
+                .forEach(tombstone -> changes.add(new Change(
+                        new SyncCursor(tombstone.getDeletedAt(), SyncCursor.DELETIONS, tombstone.getId()),
+                        new TombstoneResponse(tombstone.getEntityType(), tombstone.getEntityId(),
+                                tombstone.getProjectId()))));
+        
+        changes.sort(Comparator.comparing(Change::position));
+        boolean hasMore = changes.size() > limit;
+        List<Change> page = hasMore ? changes.subList(0, limit) : changes;
+        
+        List<ProjectResponse> projects = new ArrayList<>();
+        List<TaskResponse> tasks = new ArrayList<>();
+        List<TombstoneResponse> deleted = new ArrayList<>();
+        for (Change change : page) {
+            switch (change.position().source()) {
+                case SyncCursor.PROJECTS -> projects.add((ProjectResponse) change.item());
+                case SyncCursor.TASKS -> tasks.add((TaskResponse) change.item());
+                default -> deleted.add((TombstoneResponse) change.item());
+            }
+        }
+        
+        // A transaction committing right now can still add rows stamped just before the newest
+        // one returned, on any page. Stopping short of the grace period means recent changes may
+        // be sent twice (clients apply them idempotently) but never skipped.
+        SyncCursor next = page.isEmpty() ? null : page.get(page.size() - 1).position();
+        SyncCursor horizon = new SyncCursor(now.minusMillis(gracePeriodMillis), SyncCursor.PROJECTS, Long.MIN_VALUE);
+        if (next == null || next.compareTo(horizon) > 0) {
+            next = horizon;
+            // The rest is past the horizon too and comes with the next poll; asking again right
+            // away would only return this page again
+            hasMore = false;
+        }
+        if (next.compareTo(from) < 0) {
+            next = from;
+        }
+        
+        return new SyncResponse(projects, tasks, deleted, next.encode(), hasMore, false);
+    }
+    
+    private record Change(SyncCursor position, Object item) {
+    }
+}
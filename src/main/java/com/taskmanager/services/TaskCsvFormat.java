@@ -0,0 +1,36 @@
+package com.taskmanager.services;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV layout of task exports; ImportReader reads it back on import.
+ */
+final class TaskCsvFormat {
+    
+    static final String[] HEADER = {"id", "title", "description", "dueDate", "completed", "projectId"};
+    
+    private TaskCsvFormat() {
+    }
+    
+    static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private static String escape(String value) {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,157 @@
+package com.taskmanager.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.repositories.ProjectRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams tasks straight from a forward-only JDBC cursor to the response, so heap use stays
+ * flat however many tasks are exported. No entities are loaded.
+ */
+@Service
+public class TaskExportService {
+    
+    private static final String EXPORT_SQL =
+            "SELECT t.id, t.title, t.description, t.due_date, t.completed, t.project_id " +
+            "FROM tasks t JOIN projects p ON p.id = t.project_id WHERE p.user_id = ? AND p.deleted_at IS NULL ";
+    
+    private static final int BUFFER_SIZE = 16 * 1024;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${tasks.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    private ObjectWriter rowWriter;
+    
+    @PostConstruct
+    void init() {
+        // Built once and reused for every row; flushing per row would defeat the output buffer
+        rowWriter = objectMapper.writerFor(TaskResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Checks access up front (the body is written on another thread, outside the security context)
+     * and returns a body that exports every task of the caller, or of one of their projects.
+     */
+    public StreamingResponseBody exportTasks(Long projectId, TaskFileFormat format, boolean gzip) {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        Long currentUserId = principal.getId();
+        
+        if (projectId != null && !projectRepository.isOwnedBy(projectId, currentUserId)) {
+            throw new RuntimeException("Project not found");
+        }
+        
+        return outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            
+            if (format == TaskFileFormat.CSV) {
+                TaskCsvFormat.writeRow(writer, (Object[]) TaskCsvFormat.HEADER);
+                streamRows(currentUserId, projectId, rs -> writeCsvRow(writer, rs));
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                streamRows(currentUserId, projectId, rs -> writeJsonRow(generator, rs));
+                generator.flush();
+            }
+            
+            writer.flush();
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+    }
+    
+    private void streamRows(Long userId, Long projectId, RowCallbackHandler handler) {
+        String sql = EXPORT_SQL + (projectId != null ? "AND t.project_id = ? " : "") + "ORDER BY t.project_id, t.id";
+        
+        // PostgreSQL only honours the fetch size (server-side cursor) inside a transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            if (projectId != null) {
+                statement.setLong(2, projectId);
+            }
+            return statement;
+        }, handler));
+    }
+    
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            TaskCsvFormat.writeRow(writer,
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("description"),
+                    toLocalDate(rs.getDate("due_date")),
+                    rs.getBoolean("completed"),
+                    rs.getLong("project_id"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void writeJsonRow(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            rowWriter.writeValue(generator, new TaskResponse(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("description"),
+                    toLocalDate(rs.getDate("due_date")),
+                    rs.getBoolean("completed"),
+                    rs.getLong("project_id")));
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskmanager.services;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * File formats supported by task export and import.
+ */
+public enum TaskFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    
+    private final String contentType;
+    private final String extension;
+    
+    TaskFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public static TaskFileFormat fromExtension(String value) {
+        for (TaskFileFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Unsupported format: " + value);
+    }
+    
+    public static TaskFileFormat fromContentType(String value) {
+        MediaType mediaType = MediaType.parseMediaType(value);
+        for (TaskFileFormat format : values()) {
+            if (MediaType.parseMediaType(format.contentType).includes(mediaType)) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Unsupported content type: " + value);
+    }
+}
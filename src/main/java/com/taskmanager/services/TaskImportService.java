@@ -0,0 +1,350 @@
+package com.taskmanager.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.taskmanager.dtos.TaskImportError;
+import com.taskmanager.dtos.TaskImportResponse;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.models.Project;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.ProjectRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Imports tasks from a CSV or NDJSON stream. Rows are parsed one at a time, validated like
+ * TaskRequest and written in chunks, each in its own transaction with JDBC batching, so memory
+ * stays bounded by the chunk size whatever the size of the upload.
+ */
+@Service
+public class TaskImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+    
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${tasks.import.chunk-size:5000}")
+    private int chunkSize;
+    
+    // A multiple of hibernate.jdbc.batch_size so every flush sends full batches
+    @Value("${tasks.import.flush-interval:500}")
+    private int flushInterval;
+    
+    @Value("${tasks.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+    
+    @Value("${tasks.import.max-field-length:65536}")
+    private int maxFieldLength;
+    
+    // Characters of a CSV record or an NDJSON line, line breaks excluded
+    @Value("${tasks.import.max-record-length:262144}")
+    private int maxRecordLength;
+    
+    private ObjectReader taskReader;
+    
+    @PostConstruct
+    void init() {
+        taskReader = objectMapper.readerFor(TaskRequest.class);
+    }
+    
+    public TaskImportResponse importTasks(InputStream input, TaskFileFormat format, Long defaultProjectId)
+            throws IOException {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(principal.getId(), defaultProjectId);
+        ImportReader reader = new ImportReader(new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        
+        String abortReason = null;
+        try {
+            if (format == TaskFileFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } catch (IOException | RuntimeException e) {
+            // Chunks already committed stay committed: report them rather than fail the request
+            if (run.imported == 0) {
+                throw e;
+            }
+            abortReason = e.getMessage() != null ? e.getMessage() : e.toString();
+            logger.warn("Task import aborted after {} imported rows", run.imported, e);
+        }
+        
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        double rowsPerSecond = durationMillis == 0 ? run.imported : run.imported * 1000.0 / durationMillis;
+        logger.info("Imported {} of {} task rows in {} ms ({} rows/s)",
+                run.imported, run.total, durationMillis, Math.round(rowsPerSecond));
+        
+        return new TaskImportResponse(
+                run.total,
+                run.imported,
+                run.failed,
+                durationMillis,
+                rowsPerSecond,
+                run.errors,
+                run.failed > run.errors.size(),
+                abortReason != null,
+                abortReason
+        );
+    }
+    
+    private void readCsv(ImportReader reader, ImportRun run) throws IOException {
+        List<String> header = reader.readCsvRow(maxFieldLength, maxRecordLength);
+        if (header == null) {
+            return;
+        }
+        
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new RuntimeException("CSV header must contain a title column");
+        }
+        
+        while (true) {
+            List<String> fields;
+            try {
+                fields = reader.readCsvRow(maxFieldLength, maxRecordLength);
+            } catch (RecordTooLongException e) {
+                run.reject(run.nextRow(), e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            long row = run.nextRow();
+            TaskRequest request;
+            try {
+                request = fromCsv(fields, columns);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(row, e.getMessage());
+                continue;
+            }
+            run.accept(row, request);
+        }
+    }
+    
+    private void readNdjson(ImportReader reader, ImportRun run) throws IOException {
+        while (true) {
+            String line;
+            try {
+                line = reader.readLine(maxRecordLength);
+            } catch (RecordTooLongException e) {
+                run.reject(run.nextRow(), e.getMessage());
+                continue;
+            }
+            if (line == null) {
+                break;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = run.nextRow();
+            TaskRequest request;
+            try {
+                request = taskReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (request.getCompleted() == null) {
+                request.setCompleted(false);
+            }
+            run.accept(row, request);
+        }
+    }
+    
+    private static TaskRequest fromCsv(List<String> fields, Map<String, Integer> columns) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(field(fields, columns, "title"));
+        request.setDescription(field(fields, columns, "description"));
+        
+        String dueDate = field(fields, columns, "dueDate");
+        if (dueDate != null) {
+            request.setDueDate(LocalDate.parse(dueDate));
+        }
+        
+        String completed = field(fields, columns, "completed");
+        if (completed == null) {
+            request.setCompleted(false);
+        } else if (completed.equalsIgnoreCase("true") || completed.equalsIgnoreCase("false")) {
+            request.setCompleted(Boolean.valueOf(completed));
+        } else {
+            throw new IllegalArgumentException("Invalid completed value: " + completed);
+        }
+        
+        String projectId = field(fields, columns, "projectId");
+        if (projectId != null) {
+            try {
+                request.setProjectId(Long.valueOf(projectId.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid projectId: " + projectId);
+            }
+        }
+        return request;
+    }
+    
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+    
+    /**
+     * State of one import: the pending chunk, the ownership checks already done and the report.
+     */
+    private class ImportRun {
+        
+        private final Long userId;
+        private final Long defaultProjectId;
+        private final Map<Long, Boolean> ownedProjects = new HashMap<>();
+        private final List<TaskImportError> errors = new ArrayList<>();
+        private List<TaskRequest> chunk = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+        
+        ImportRun(Long userId, Long defaultProjectId) {
+            this.userId = userId;
+            this.defaultProjectId = defaultProjectId;
+        }
+        
+        long nextRow() {
+            return ++total;
+        }
+        
+        void accept(long row, TaskRequest request) {
+            if (request.getProjectId() == null) {
+                request.setProjectId(defaultProjectId);
+            }
+            
+            Set<ConstraintViolation<TaskRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            
+            // One ownership check per distinct project for the whole import
+            boolean owned = ownedProjects.computeIfAbsent(request.getProjectId(),
+                    projectId -> projectRepository.isOwnedBy(projectId, userId));
+            if (!owned) {
+                reject(row, "Project not found");
+                return;
+            }
+            
+            chunk.add(request);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new TaskImportError(row, message));
+            }
+        }
+        
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<TaskRequest> pending = chunk;
+            chunk = new ArrayList<>();
+            
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> writeChunk(userId, pending));
+            imported += pending.size();
+        }
+    }
+    
+    private void writeChunk(Long userId, List<TaskRequest> requests) {
+        // Sorted: project rows are locked in id order, like TaskService and the counter reconciler do
+        Map<Long, int[]> counterDeltas = new TreeMap<>();
+        int written = 0;
+        
+        for (TaskRequest request : requests) {
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setDueDate(request.getDueDate());
+            task.setCompleted(request.getCompleted());
+            task.setProject(entityManager.getReference(Project.class, request.getProjectId()));
+            entityManager.persist(task);
+            
+            int[] delta = counterDeltas.computeIfAbsent(request.getProjectId(), id -> new int[2]);
+            delta[0]++;
+            delta[1] += Boolean.TRUE.equals(request.getCompleted()) ? 1 : 0;
+            
+            // Keep the persistence context small: send the batch and forget the entities
+            if (++written % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        counterDeltas.forEach((projectId, delta) -> {
+            projectRepository.adjustTaskCounters(projectId, delta[0], delta[1]);
+            eventPublisher.publishEvent(EntityChangeEvent.project(userId, EntityChangeEvent.TASKS_CHANGED, projectId));
+        });
+    }
+}
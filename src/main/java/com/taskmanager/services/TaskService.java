@@ -1,29 +1,63 @@
 package com.taskmanager.services;
 
+import com.taskmanager.dtos.CalendarDayResponse;
+import com.taskmanager.dtos.CalendarResponse;
+import com.taskmanager.dtos.CursorPageResponse;
 import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.TaskBatchItem;
 import com.taskmanager.dtos.TaskFilterRequest;
 import com.taskmanager.dtos.TaskRequest;
 import com.taskmanager.dtos.TaskResponse;
 import com.taskmanager.models.Project;
 import com.taskmanager.models.Task;
-import com.taskmanager.models.User;
+import com.taskmanager.models.Tombstone;
+import com.taskmanager.repositories.KeysetCursor;
+import com.taskmanager.repositories.ProjectCounters;
 import com.taskmanager.repositories.ProjectRepository;
 import com.taskmanager.repositories.TaskRepository;
-import com.taskmanager.repositories.UserRepository;
+import com.taskmanager.repositories.TombstoneRepository;
+import com.taskmanager.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
     
+    private static final int MAX_SEARCH_TERMS = 8;
+    
+    private static final List<Boolean> OPEN_ONLY = List.of(false);
+    private static final List<Boolean> OPEN_AND_COMPLETED = List.of(false, true);
+    
+    @Value("${tasks.calendar.max-days:62}")
+    private int calendarMaxDays;
+    
+    @Value("${tasks.calendar.max-tasks:2000}")
+    private int calendarMaxTasks;
+    
     @Autowired
     private TaskRepository taskRepository;
     
@@ -31,64 +65,96 @@ public class TaskService {
     private ProjectRepository projectRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private Long getCurrentUserId() {
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return principal.getId();
     }
     
-    public List<TaskResponse> getTasksByProjectId(Long projectId) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
-        
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByProjectId(Long projectId, boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        if (!projectRepository.isOwnedBy(projectId, currentUserId)) {
+            throw new RuntimeException("Project not found");
         }
         
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return taskRepository.findResponsesByProjectId(projectId, includeDescription);
     }
     
-    public PageResponse<TaskResponse> getTasksWithFilters(TaskFilterRequest filterRequest) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(filterRequest.getProjectId())
+    /**
+     * ETag for the task lists of a project, answered from the project's task stamp without touching the tasks.
+     * Lists without descriptions are a different representation and get their own tag. Weak because
+     * the same data is served as JSON, Smile or CBOR, possibly compressed.
+     */
+    @Transactional(readOnly = true)
+    public String getTasksEtag(Long projectId, boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        ProjectCounters counters = projectRepository.findCountersByIdAndUserId(projectId, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
-        }
-        
-        Sort sort = filterRequest.getSortDirection().equalsIgnoreCase("desc")
-                ? Sort.by(filterRequest.getSortBy()).descending()
-                : Sort.by(filterRequest.getSortBy()).ascending();
-        
-        Pageable pageable = PageRequest.of(filterRequest.getPage(), filterRequest.getSize(), sort);
+        return "W/\"" + projectId + "-" + counters.getTaskStamp() + (includeDescription ? "" : "-summary") + "\"";
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getTasksWithFilters(TaskFilterRequest filterRequest) {
+        Long currentUserId = getCurrentUserId();
+        String searchQuery = toSearchQuery(filterRequest.getSearch());
+        boolean includeDescription = filterRequest.isIncludeDescription();
         
-        Page<Task> taskPage;
+        Page<TaskResponse> taskPage;
         
-        // Use simple query if no filters, otherwise use custom query
-        if (filterRequest.getSearch() == null && filterRequest.getCompleted() == null) {
-            taskPage = taskRepository.findByProjectId(filterRequest.getProjectId(), pageable);
-        } else {
-            taskPage = taskRepository.findByFilters(
-                    filterRequest.getProjectId(),
-                    filterRequest.getSearch(),
+        if (filterRequest.getProjectId() == null) {
+            // Searching across all of the caller's projects is only allowed in search mode
+            if (searchQuery == null) {
+                throw new RuntimeException("Project ID is required");
+            }
+            taskPage = taskRepository.searchInUserProjects(
+                    currentUserId,
+                    searchQuery,
                     filterRequest.getCompleted(),
-                    pageable
-            );
+                    PageRequest.of(filterRequest.getPage(), filterRequest.getSize())
+            ).map(task -> convertToResponse(task, includeDescription));
+        } else {
+            if (!projectRepository.isOwnedBy(filterRequest.getProjectId(), currentUserId)) {
+                throw new RuntimeException("Project not found");
+            }
+            
+            if (searchQuery != null) {
+                // Search results are ordered by relevance, the sort parameters don't apply
+                taskPage = taskRepository.searchInProject(
+                        filterRequest.getProjectId(),
+                        searchQuery,
+                        filterRequest.getCompleted(),
+                        PageRequest.of(filterRequest.getPage(), filterRequest.getSize())
+                ).map(task -> convertToResponse(task, includeDescription));
+            } else {
+                Sort sort = filterRequest.getSortDirection().equalsIgnoreCase("desc")
+                        ? Sort.by(filterRequest.getSortBy()).descending()
+                        : Sort.by(filterRequest.getSortBy()).ascending();
+                
+                Pageable pageable = PageRequest.of(filterRequest.getPage(), filterRequest.getSize(), sort);
+                
+                if (filterRequest.getCompleted() == null) {
+                    taskPage = taskRepository.findResponsesByProjectId(
+                            filterRequest.getProjectId(), includeDescription, pageable);
+                } else {
+                    taskPage = taskRepository.findResponsesByProjectIdAndCompleted(
+                            filterRequest.getProjectId(),
+                            filterRequest.getCompleted(),
+                            includeDescription,
+                            pageable
+                    );
+                }
+            }
         }
         
-        List<TaskResponse> content = taskPage.getContent().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        
         return new PageResponse<>(
-                content,
+                taskPage.getContent(),
                 taskPage.getNumber(),
                 taskPage.getSize(),
                 taskPage.getTotalElements(),
@@ -98,25 +164,120 @@ public class TaskService {
         );
     }
     
-    public TaskResponse getTaskById(Long id) {
-        User currentUser = getCurrentUser();
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskResponse> getTasksWithCursor(TaskFilterRequest filterRequest) {
+        Long currentUserId = getCurrentUserId();
+        ProjectCounters counters = projectRepository.findCountersByIdAndUserId(filterRequest.getProjectId(), currentUserId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        
+        String sortBy = filterRequest.getSortBy();
+        boolean descending = filterRequest.getSortDirection().equalsIgnoreCase("desc");
+        KeysetCursor after = filterRequest.getCursor() != null ? KeysetCursor.decode(filterRequest.getCursor()) : null;
+        int size = filterRequest.getSize();
+        
+        // Fetch one extra row to know whether another page follows
+        List<TaskResponse> tasks = taskRepository.findKeysetPage(filterRequest.getProjectId(), filterRequest.getCompleted(),
+                sortBy, descending, after, size + 1, filterRequest.isIncludeDescription());
         
-        if (!task.getProject().getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to task");
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
         }
         
-        return convertToResponse(task);
+        String nextCursor = null;
+        if (hasNext) {
+            TaskResponse last = tasks.get(tasks.size() - 1);
+            nextCursor = KeysetCursor.of(sortBy, descending, sortValue(last, sortBy), last.getId()).encode();
+        }
+        
+        // Served from the project counters instead of a COUNT(*) per page
+        long totalElements;
+        if (filterRequest.getCompleted() == null) {
+            totalElements = counters.getTotalTasks();
+        } else if (filterRequest.getCompleted()) {
+            totalElements = counters.getCompletedTasks();
+        } else {
+            totalElements = counters.getTotalTasks() - counters.getCompletedTasks();
+        }
+        
+        return new CursorPageResponse<>(tasks, size, nextCursor, hasNext, totalElements);
     }
     
-    public TaskResponse createTask(TaskRequest request) {
-        User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(request.getProjectId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+    /**
+     * Open tasks of all the caller's projects whose due date has passed, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getOverdueTasks(int page, int size, boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        Page<TaskResponse> taskPage = taskRepository.findOverdue(
+                currentUserId, LocalDate.now(), includeDescription, PageRequest.of(page, size));
         
-        if (!project.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to project");
+        return toPageResponse(taskPage);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getTasksDueBetween(LocalDate from, LocalDate to, boolean includeCompleted,
+                                                         int page, int size, boolean includeDescription) {
+        Long currentUserId = getCurrentUserId();
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        
+        Page<TaskResponse> taskPage = taskRepository.findDueBetween(currentUserId,
+                includeCompleted ? OPEN_AND_COMPLETED : OPEN_ONLY, from, to, includeDescription, PageRequest.of(page, size));
+        
+        return toPageResponse(taskPage);
+    }
+    
+    /**
+     * Tasks of all the caller's projects due in the range, grouped by day, from one query.
+     * Descriptions are left out; the client loads a task when it's opened.
+     */
+    @Transactional(readOnly = true)
+    public CalendarResponse getCalendar(LocalDate from, LocalDate to, boolean includeCompleted) {
+        Long currentUserId = getCurrentUserId();
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= calendarMaxDays) {
+            throw new RuntimeException("Calendar range cannot exceed " + calendarMaxDays + " days");
+        }
+        
+        // Fetch one extra row to know whether the range was cut short
+        List<TaskResponse> tasks = taskRepository.findAllDueBetween(currentUserId,
+                includeCompleted ? OPEN_AND_COMPLETED : OPEN_ONLY, from, to, false,
+                PageRequest.of(0, calendarMaxTasks + 1));
+        
+        boolean truncated = tasks.size() > calendarMaxTasks;
+        if (truncated) {
+            tasks = tasks.subList(0, calendarMaxTasks);
+        }
+        
+        // Rows arrive ordered by due date, so days come out in order
+        Map<LocalDate, List<TaskResponse>> tasksByDay = tasks.stream()
+                .collect(Collectors.groupingBy(TaskResponse::getDueDate, LinkedHashMap::new, Collectors.toList()));
+        
+        List<CalendarDayResponse> days = new ArrayList<>(tasksByDay.size());
+        tasksByDay.forEach((date, dayTasks) -> {
+            int completedTasks = (int) dayTasks.stream().filter(task -> Boolean.TRUE.equals(task.getCompleted())).count();
+            days.add(new CalendarDayResponse(date, dayTasks.size(), completedTasks, dayTasks));
+        });
+        
+        return new CalendarResponse(from, to, days, truncated);
+    }
+    
+    @Transactional(readOnly = true)
+    public TaskResponse getTaskById(Long id) {
+        Long currentUserId = getCurrentUserId();
+        return taskRepository.findOwnedResponseById(id, currentUserId, true)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+    }
+    
+    @Transactional
+    public TaskResponse createTask(TaskRequest request) {
+        Long currentUserId = getCurrentUserId();
+        if (!projectRepository.isOwnedBy(request.getProjectId(), currentUserId)) {
+            throw new RuntimeException("Project not found");
         }
         
         Task task = new Task();
@@ -124,31 +285,32 @@ public class TaskService {
         task.setDescription(request.getDescription());
         task.setDueDate(request.getDueDate());
         task.setCompleted(request.getCompleted());
-        task.setProject(project);
+        // Ownership is already verified, a reference is enough to set the foreign key
+        task.setProject(projectRepository.getReferenceById(request.getProjectId()));
         
         Task savedTask = taskRepository.save(task);
+        projectRepository.adjustTaskCounters(request.getProjectId(), 1, completedDelta(savedTask.getCompleted()));
+        eventPublisher.publishEvent(EntityChangeEvent.task(
+                currentUserId, EntityChangeEvent.CREATED, savedTask.getId(), request.getProjectId()));
         return convertToResponse(savedTask);
     }
     
+    @Transactional
     public TaskResponse updateTask(Long id, TaskRequest request) {
-        User currentUser = getCurrentUser();
-        Task task = taskRepository.findById(id)
+        Long currentUserId = getCurrentUserId();
+        Task task = taskRepository.findOwnedById(id, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
         
-        if (!task.getProject().getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to task");
-        }
+        Long previousProjectId = task.getProject().getId();
+        Boolean previouslyCompleted = task.getCompleted();
         
         // Check if project is being changed and validate access
-        if (!task.getProject().getId().equals(request.getProjectId())) {
-            Project newProject = projectRepository.findById(request.getProjectId())
-                    .orElseThrow(() -> new RuntimeException("Project not found"));
-            
-            if (!newProject.getUser().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("Unauthorized access to target project");
+        if (!previousProjectId.equals(request.getProjectId())) {
+            if (!projectRepository.isOwnedBy(request.getProjectId(), currentUserId)) {
+                throw new RuntimeException("Project not found");
             }
             
-            task.setProject(newProject);
+            task.setProject(projectRepository.getReferenceById(request.getProjectId()));
         }
         
         task.setTitle(request.getTitle());
@@ -157,26 +319,269 @@ public class TaskService {
         task.setCompleted(request.getCompleted());
         
         Task updatedTask = taskRepository.save(task);
+        
+        // Keep the per-project counters in step with the move and/or completion toggle
+        if (!previousProjectId.equals(updatedTask.getProject().getId())) {
+            Map<Long, int[]> counterDeltas = new TreeMap<>();
+            addCounterDelta(counterDeltas, previousProjectId, -1, -completedDelta(previouslyCompleted));
+            addCounterDelta(counterDeltas, updatedTask.getProject().getId(), 1, completedDelta(updatedTask.getCompleted()));
+            applyCounterDeltas(counterDeltas);
+            // The task left this project's lists
+            eventPublisher.publishEvent(EntityChangeEvent.project(
+                    currentUserId, EntityChangeEvent.TASKS_CHANGED, previousProjectId));
+        } else if (!previouslyCompleted.equals(updatedTask.getCompleted())) {
+            projectRepository.adjustTaskCounters(previousProjectId, 0,
+                    completedDelta(updatedTask.getCompleted()) - completedDelta(previouslyCompleted));
+        } else {
+            projectRepository.markTasksChanged(previousProjectId);
+        }
+        
+        eventPublisher.publishEvent(EntityChangeEvent.task(
+                currentUserId, EntityChangeEvent.UPDATED, updatedTask.getId(), updatedTask.getProject().getId()));
         return convertToResponse(updatedTask);
     }
     
+    @Transactional
     public void deleteTask(Long id) {
-        User currentUser = getCurrentUser();
-        Task task = taskRepository.findById(id)
+        Long currentUserId = getCurrentUserId();
+        Task task = taskRepository.findOwnedById(id, currentUserId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
         
-        if (!task.getProject().getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access to task");
+        taskRepository.delete(task);
+        tombstoneRepository.save(tombstone(task, currentUserId, Instant.now()));
+        projectRepository.adjustTaskCounters(task.getProject().getId(), -1, -completedDelta(task.getCompleted()));
+        eventPublisher.publishEvent(EntityChangeEvent.task(
+                currentUserId, EntityChangeEvent.DELETED, task.getId(), task.getProject().getId()));
+    }
+    
+    @Transactional
+    public List<TaskResponse> createTasks(List<TaskRequest> requests) {
+        Long currentUserId = getCurrentUserId();
+        Map<Long, Project> projects = getOwnedProjects(requests.stream()
+                .map(TaskRequest::getProjectId)
+                .collect(Collectors.toSet()), currentUserId);
+        
+        Map<Long, int[]> counterDeltas = new TreeMap<>();
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (TaskRequest request : requests) {
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setDueDate(request.getDueDate());
+            task.setCompleted(request.getCompleted());
+            task.setProject(projects.get(request.getProjectId()));
+            tasks.add(task);
+            addCounterDelta(counterDeltas, request.getProjectId(), 1, completedDelta(request.getCompleted()));
         }
         
-        taskRepository.delete(task);
+        // Sequence ids + hibernate.jdbc.batch_size turn this into a handful of batched inserts
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        applyCounterDeltas(counterDeltas);
+        publishTasksChanged(currentUserId, counterDeltas.keySet());
+        
+        return savedTasks.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public List<TaskResponse> updateTasks(List<TaskBatchItem> items) {
+        Long currentUserId = getCurrentUserId();
+        Map<Long, TaskBatchItem> itemsById = new HashMap<>();
+        for (TaskBatchItem item : items) {
+            if (itemsById.put(item.getId(), item) != null) {
+                throw new RuntimeException("Duplicate task id in batch: " + item.getId());
+            }
+        }
+        
+        List<Task> tasks = getOwnedTasks(itemsById.keySet(), currentUserId);
+        
+        // Only projects that tasks are moving into need loading and an ownership check
+        Set<Long> targetProjectIds = new HashSet<>();
+        for (Task task : tasks) {
+            Long targetProjectId = itemsById.get(task.getId()).getProjectId();
+            if (!task.getProject().getId().equals(targetProjectId)) {
+                targetProjectIds.add(targetProjectId);
+            }
+        }
+        Map<Long, Project> targetProjects = getOwnedProjects(targetProjectIds, currentUserId);
+        
+        Map<Long, int[]> counterDeltas = new TreeMap<>();
+        for (Task task : tasks) {
+            TaskBatchItem item = itemsById.get(task.getId());
+            Long previousProjectId = task.getProject().getId();
+            
+            addCounterDelta(counterDeltas, previousProjectId, -1, -completedDelta(task.getCompleted()));
+            addCounterDelta(counterDeltas, item.getProjectId(), 1, completedDelta(item.getCompleted()));
+            
+            if (!previousProjectId.equals(item.getProjectId())) {
+                task.setProject(targetProjects.get(item.getProjectId()));
+            }
+            task.setTitle(item.getTitle());
+            task.setDescription(item.getDescription());
+            task.setDueDate(item.getDueDate());
+            task.setCompleted(item.getCompleted());
+        }
+        
+        applyCounterDeltas(counterDeltas);
+        publishTasksChanged(currentUserId, counterDeltas.keySet());
+        
+        return tasks.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public List<TaskResponse> completeTasks(List<Long> ids, Boolean completed) {
+        Long currentUserId = getCurrentUserId();
+        List<Task> tasks = getOwnedTasks(new HashSet<>(ids), currentUserId);
+        
+        Map<Long, int[]> counterDeltas = new TreeMap<>();
+        for (Task task : tasks) {
+            if (!task.getCompleted().equals(completed)) {
+                addCounterDelta(counterDeltas, task.getProject().getId(), 0,
+                        completedDelta(completed) - completedDelta(task.getCompleted()));
+                task.setCompleted(completed);
+            }
+        }
+        
+        applyCounterDeltas(counterDeltas);
+        publishTasksChanged(currentUserId, counterDeltas.keySet());
+        
+        return tasks.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public void deleteTasks(List<Long> ids) {
+        Long currentUserId = getCurrentUserId();
+        List<Task> tasks = getOwnedTasks(new HashSet<>(ids), currentUserId);
+        
+        Instant deletedAt = Instant.now();
+        Map<Long, int[]> counterDeltas = new TreeMap<>();
+        List<Tombstone> tombstones = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            addCounterDelta(counterDeltas, task.getProject().getId(), -1, -completedDelta(task.getCompleted()));
+            tombstones.add(tombstone(task, currentUserId, deletedAt));
+        }
+        
+        taskRepository.deleteAllInBatch(tasks);
+        tombstoneRepository.saveAll(tombstones);
+        applyCounterDeltas(counterDeltas);
+        publishTasksChanged(currentUserId, counterDeltas.keySet());
+    }
+    
+    /**
+     * Loads the given projects with a single query and checks they all belong to the user.
+     */
+    private Map<Long, Project> getOwnedProjects(Set<Long> projectIds, Long userId) {
+        if (projectIds.isEmpty()) {
+            return Map.of();
+        }
+        
+        List<Project> projects = projectRepository.findByIdInAndUserIdAndDeletedAtIsNull(projectIds, userId);
+        if (projects.size() != projectIds.size()) {
+            throw new RuntimeException("Unauthorized access to project");
+        }
+        
+        return projects.stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+    }
+    
+    /**
+     * Loads the given tasks with a single query and checks they all belong to the user.
+     */
+    private List<Task> getOwnedTasks(Set<Long> taskIds, Long userId) {
+        List<Task> tasks = taskRepository.findOwnedByIds(taskIds, userId);
+        if (tasks.size() != taskIds.size()) {
+            throw new RuntimeException("Task not found");
+        }
+        return tasks;
+    }
+    
+    private static void addCounterDelta(Map<Long, int[]> counterDeltas, Long projectId, int total, int completed) {
+        int[] delta = counterDeltas.computeIfAbsent(projectId, id -> new int[2]);
+        delta[0] += total;
+        delta[1] += completed;
+    }
+    
+    /**
+     * Expects a sorted map: project rows are locked in id order, like ProjectCounterReconciler locks
+     * them, so concurrent batches and the reconciler can't deadlock.
+     */
+    private void applyCounterDeltas(Map<Long, int[]> counterDeltas) {
+        // Zero deltas are applied too: every touched project needs its task stamp bumped
+        counterDeltas.forEach((projectId, delta) -> projectRepository.adjustTaskCounters(projectId, delta[0], delta[1]));
+    }
+    
+    /**
+     * Deletions are kept as tombstones so GET /sync can report them.
+     */
+    private static Tombstone tombstone(Task task, Long userId, Instant deletedAt) {
+        return new Tombstone(null, EntityChangeEvent.TASK, task.getId(), task.getProject().getId(), userId, deletedAt);
+    }
+    
+    /**
+     * Batch operations announce one event per touched project rather than one per task.
+     */
+    private void publishTasksChanged(Long userId, Set<Long> projectIds) {
+        projectIds.forEach(projectId -> eventPublisher.publishEvent(
+                EntityChangeEvent.project(userId, EntityChangeEvent.TASKS_CHANGED, projectId)));
+    }
+    
+    private static PageResponse<TaskResponse> toPageResponse(Page<TaskResponse> taskPage) {
+        return new PageResponse<>(
+                taskPage.getContent(),
+                taskPage.getNumber(),
+                taskPage.getSize(),
+                taskPage.getTotalElements(),
+                taskPage.getTotalPages(),
+                taskPage.isFirst(),
+                taskPage.isLast()
+        );
+    }
+    
+    private static Object sortValue(TaskResponse task, String sortBy) {
+        return switch (sortBy) {
+            case "title" -> task.getTitle();
+            case "completed" -> task.getCompleted();
+            case "dueDate" -> task.getDueDate() != null ? task.getDueDate() : KeysetCursor.NULL_DATE;
+            default -> task.getId();
+        };
+    }
+    
+    /**
+     * Turns free text into a prefix-matching tsquery ("buy mil" becomes "buy:* & mil:*").
+     * Returns null when the text contains no searchable terms.
+     */
+    private static String toSearchQuery(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        
+        String query = Arrays.stream(search.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        
+        return query.isEmpty() ? null : query;
+    }
+    
+    private static int completedDelta(Boolean completed) {
+        return Boolean.TRUE.equals(completed) ? 1 : 0;
     }
     
     private TaskResponse convertToResponse(Task task) {
+        return convertToResponse(task, true);
+    }
+    
+    private TaskResponse convertToResponse(Task task, boolean includeDescription) {
         return new TaskResponse(
                 task.getId(),
                 task.getTitle(),
-                task.getDescription(),
+                includeDescription ? task.getDescription() : null,
                 task.getDueDate(),
                 task.getCompleted(),
                 task.getProject().getId()
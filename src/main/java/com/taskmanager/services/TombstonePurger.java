@@ -0,0 +1,36 @@
+package com.taskmanager.services;
+
+import com.taskmanager.repositories.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Drops deletion records older than the sync retention. Clients with an older cursor are
+ * told to reset instead of being sent an incomplete list of deletions.
+ */
+@Component
+public class TombstonePurger {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TombstonePurger.class);
+    
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    
+    @Value("${sync.tombstone-retention:2592000000}")
+    private long tombstoneRetentionMillis;
+    
+    @Scheduled(initialDelayString = "${sync.tombstone-purge-initial-delay:300000}",
+               fixedDelayString = "${sync.tombstone-purge-interval:86400000}")
+    public void purge() {
+        int purged = tombstoneRepository.deleteDeletedBefore(Instant.now().minusMillis(tombstoneRetentionMillis));
+        if (purged > 0) {
+            logger.info("Purged {} tombstone(s)", purged);
+        }
+    }
+}
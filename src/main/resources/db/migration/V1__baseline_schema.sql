@@ -0,0 +1,99 @@
+-- Baseline schema. Idempotent so that it also applies cleanly to databases created earlier by
+-- spring.jpa.hibernate.ddl-auto=update (Flyway baselines those at version 0, see application.properties).
+-- Every index below is named after the query it serves; scripts/explain-check.sh verifies them.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+-- Pooled ids (allocationSize = 50 on the entities)
+CREATE SEQUENCE IF NOT EXISTS projects_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tombstones_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS projects (
+    id              BIGINT PRIMARY KEY,
+    title           VARCHAR(255) NOT NULL,
+    description     TEXT,
+    user_id         BIGINT NOT NULL REFERENCES users (id),
+    total_tasks     INTEGER NOT NULL DEFAULT 0,
+    completed_tasks INTEGER NOT NULL DEFAULT 0,
+    task_stamp      BIGINT NOT NULL DEFAULT 0,
+    version         BIGINT NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id          BIGINT PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_date    DATE,
+    completed   BOOLEAN NOT NULL,
+    version     BIGINT NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    project_id  BIGINT NOT NULL REFERENCES projects (id)
+);
+
+-- Databases created earlier already have projects and tasks, so the CREATE TABLEs above skip them:
+-- add the columns they miss. The defaults fill the existing rows.
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS total_tasks INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS completed_tasks INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS task_stamp BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Counters of existing projects start at 0; count their tasks once (a no-op on a new database)
+UPDATE projects p
+SET total_tasks = c.total, completed_tasks = c.completed
+FROM (SELECT project_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE completed) AS completed
+      FROM tasks GROUP BY project_id) c
+WHERE c.project_id = p.id
+  AND (p.total_tasks <> c.total OR p.completed_tasks <> c.completed);
+
+-- No foreign keys: the rows a tombstone points at are gone
+CREATE TABLE IF NOT EXISTS tombstones (
+    id          BIGINT PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id   BIGINT NOT NULL,
+    project_id  BIGINT,
+    user_id     BIGINT NOT NULL,
+    deleted_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- projects: PostgreSQL doesn't index foreign keys by itself.
+-- Lists, counts, ETag stamp, dashboard and keyset/paged sorting by id
+CREATE INDEX IF NOT EXISTS idx_projects_user_id ON projects (user_id, id);
+-- Keyset and paged sorting by title
+CREATE INDEX IF NOT EXISTS idx_projects_user_title ON projects (user_id, title, id);
+-- GET /sync
+CREATE INDEX IF NOT EXISTS idx_projects_user_updated ON projects (user_id, updated_at, id);
+
+-- tasks
+-- Lists, keyset/paged sorting by id, dashboard first tasks, export, counter reconciliation
+-- and the foreign key checks when a project is deleted
+CREATE INDEX IF NOT EXISTS idx_tasks_project_id ON tasks (project_id, id);
+-- Keyset and paged sorting by title
+CREATE INDEX IF NOT EXISTS idx_tasks_project_title ON tasks (project_id, title, id);
+-- Keyset sorting by due date; the expression must match KeysetQuerySupport (no due date sorts last)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_due ON tasks (project_id, COALESCE(due_date, DATE '9999-12-31'), id);
+-- Filtering on completed, and keyset sorting by completed
+CREATE INDEX IF NOT EXISTS idx_tasks_project_completed ON tasks (project_id, completed, id);
+-- Overdue, due in range, calendar and the dashboard's overdue counts
+CREATE INDEX IF NOT EXISTS idx_tasks_project_completed_due ON tasks (project_id, completed, due_date);
+-- GET /sync
+CREATE INDEX IF NOT EXISTS idx_tasks_project_updated ON tasks (project_id, updated_at, id);
+-- Full-text search (expression must match TaskRepository.SEARCH_VECTOR)
+CREATE INDEX IF NOT EXISTS idx_tasks_search
+    ON tasks USING GIN (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, '')));
+
+-- tombstones: GET /sync, and the purge
+CREATE INDEX IF NOT EXISTS idx_tombstones_user_deleted ON tombstones (user_id, deleted_at, id);
+CREATE INDEX IF NOT EXISTS idx_tombstones_deleted ON tombstones (deleted_at);
+
+-- Move the pooled id sequences past ids assigned while the tables still used IDENTITY columns
+SELECT setval('tasks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM tasks), (SELECT last_value FROM tasks_seq)));
+SELECT setval('projects_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM projects), (SELECT last_value FROM projects_seq)));
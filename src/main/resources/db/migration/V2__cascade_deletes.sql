@@ -0,0 +1,36 @@
+-- Set-based deletes: a project's tasks and a user's projects are removed by the database
+-- (ON DELETE CASCADE) instead of being loaded and deleted row by row by Hibernate.
+-- The existing foreign keys have generated names, so they are looked up rather than named.
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT c.conname, c.conrelid::regclass AS table_name
+        FROM pg_constraint c
+        WHERE c.contype = 'f'
+          AND ((c.conrelid = 'tasks'::regclass AND c.confrelid = 'projects'::regclass)
+            OR (c.conrelid = 'projects'::regclass AND c.confrelid = 'users'::regclass))
+          AND c.confdeltype <> 'c'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END $$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'tasks'::regclass AND confrelid = 'projects'::regclass) THEN
+        ALTER TABLE tasks ADD CONSTRAINT fk_tasks_project
+            FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'projects'::regclass AND confrelid = 'users'::regclass) THEN
+        ALTER TABLE projects ADD CONSTRAINT fk_projects_user
+            FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+    END IF;
+END $$;
+
+-- Asynchronous deletion of large projects: marked here, rows removed later by ProjectPurger
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- ProjectPurger's queue; stays tiny since only projects waiting for a purge are in it
+CREATE INDEX IF NOT EXISTS idx_projects_deleted ON projects (deleted_at) WHERE deleted_at IS NOT NULL;
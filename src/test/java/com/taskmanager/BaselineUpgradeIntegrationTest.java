@@ -0,0 +1,92 @@
+package com.taskmanager;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrade path of a database created by ddl-auto=update before the migrations existed: Flyway
+ * baselines it at 0, V1 and V2 bring it to the current schema, and the application starts on it
+ * with ddl-auto=validate. Uses its own PostgreSQL, since the shared one is migrated from scratch.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("user-024")
+class BaselineUpgradeIntegrationTest {
+    
+    private static final EmbeddedPostgres POSTGRES = startWithBaselineSchema();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+    
+    private static EmbeddedPostgres startWithBaselineSchema() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-schema.sql"));
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the embedded PostgreSQL", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create the baseline schema", e);
+        }
+    }
+    
+    @Test
+    void migratesBaselineDatabase() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class))
+                .containsExactly("0", "1", "2");
+        
+        Map<String, Object> project = jdbcTemplate.queryForMap(
+                "SELECT total_tasks, completed_tasks, task_stamp, version, updated_at, deleted_at FROM projects WHERE id = 1");
+        assertThat(project.get("total_tasks")).isEqualTo(3);
+        assertThat(project.get("completed_tasks")).isEqualTo(1);
+        assertThat(project.get("task_stamp")).isEqualTo(0L);
+        assertThat(project.get("version")).isEqualTo(0L);
+        assertThat(project.get("updated_at")).isNotNull();
+        assertThat(project.get("deleted_at")).isNull();
+        
+        assertThat(jdbcTemplate.queryForList("SELECT version FROM tasks WHERE updated_at IS NOT NULL", Long.class))
+                .containsExactly(0L, 0L, 0L);
+    }
+    
+    @Test
+    void pooledSequencesStartPastExistingIds() {
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('tasks_seq')", Long.class)).isGreaterThan(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('projects_seq')", Long.class)).isGreaterThan(1);
+    }
+    
+    @Test
+    void foreignKeysCascade() {
+        List<String> deleteRules = jdbcTemplate.queryForList(
+                "SELECT confdeltype::text FROM pg_constraint WHERE contype = 'f' AND conrelid IN ('tasks'::regclass, 'projects'::regclass)",
+                String.class);
+        assertThat(deleteRules).containsExactly("c", "c");
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskmanager;
+
+import com.taskmanager.dtos.LoginResponse;
+import com.taskmanager.dtos.ProjectRequest;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.RegisterRequest;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.dtos.TaskResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base class of the integration tests: the whole application on a random port, backed by an
+ * embedded PostgreSQL migrated by Flyway. The database is shared by every test class of the run,
+ * so each test works with its own freshly registered user.
+ * <p>
+ * Tests are tagged with the backlog request whose behaviour they cover, so the ones of a single
+ * request run with {@code mvn test -Dgroups=user-003}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+    
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    
+    @Autowired
+    protected TestRestTemplate restTemplate;
+    
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+    
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the embedded PostgreSQL", e);
+        }
+    }
+    
+    /**
+     * Registers a new user and returns its bearer token.
+     */
+    protected String register() {
+        RegisterRequest request = new RegisterRequest("user-" + UUID.randomUUID() + "@example.com", "secret123");
+        ResponseEntity<LoginResponse> response = restTemplate.postForEntity("/auth/register", request, LoginResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody().getToken();
+    }
+    
+    protected ProjectResponse createProject(String token, String title) {
+        ResponseEntity<ProjectResponse> response = exchange(token, HttpMethod.POST, "/projects",
+                new ProjectRequest(title, title + " description"), ProjectResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+    
+    protected TaskResponse createTask(String token, Long projectId, String title, LocalDate dueDate, boolean completed) {
+        ResponseEntity<TaskResponse> response = exchange(token, HttpMethod.POST, "/tasks",
+                new TaskRequest(title, title + " description", dueDate, completed, projectId), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+    
+    protected <T> ResponseEntity<T> exchange(String token, HttpMethod method, String url, Object body, Class<T> type) {
+        return restTemplate.exchange(url, method, new HttpEntity<>(body, headers(token)), type);
+    }
+    
+    protected <T> ResponseEntity<T> exchange(String token, HttpMethod method, String url, Object body,
+                                             ParameterizedTypeReference<T> type) {
+        return restTemplate.exchange(url, method, new HttpEntity<>(body, headers(token)), type);
+    }
+    
+    protected <T> T get(String token, String url, ParameterizedTypeReference<T> type) {
+        ResponseEntity<T> response = exchange(token, HttpMethod.GET, url, null, type);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+    
+    protected <T> T get(String token, String url, Class<T> type) {
+        ResponseEntity<T> response = exchange(token, HttpMethod.GET, url, null, type);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+    
+    /**
+     * JSON explicitly: the API also speaks Smile and CBOR, picked from the Accept header.
+     */
+    protected static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,124 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.ProgressResponse;
+import com.taskmanager.dtos.ProjectRequest;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.dtos.TaskResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The project and task lists answer 304 to a matching If-None-Match, and any write that
+ * changes the list changes its ETag.
+ */
+@Tag("user-012")
+class ListEtagIntegrationTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void projectListRevalidates() {
+        String token = register();
+        ProjectResponse project = createProject(token, "Etag");
+        
+        String etag = fetch(token, "/projects", null).getHeaders().getETag();
+        assertThat(etag).startsWith("W/");
+        assertThat(fetch(token, "/projects", etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        
+        // The representation without descriptions has its own tag
+        String summaryEtag = fetch(token, "/projects?includeDescription=false", null).getHeaders().getETag();
+        assertThat(summaryEtag).isNotEqualTo(etag);
+        
+        // Updating bumps the version
+        exchange(token, HttpMethod.PUT, "/projects/" + project.getId(),
+                new ProjectRequest("Renamed", null), ProjectResponse.class);
+        String afterUpdate = assertChanged(token, "/projects", etag);
+        
+        createProject(token, "Another");
+        String afterCreate = assertChanged(token, "/projects", afterUpdate);
+        
+        exchange(token, HttpMethod.DELETE, "/projects/" + project.getId(), null, Void.class);
+        assertChanged(token, "/projects", afterCreate);
+    }
+    
+    @Test
+    void taskListRevalidates() {
+        String token = register();
+        Long projectId = createProject(token, "Tasks").getId();
+        TaskResponse task = createTask(token, projectId, "first", null, false);
+        String url = "/tasks?projectId=" + projectId;
+        
+        String etag = fetch(token, url, null).getHeaders().getETag();
+        assertThat(fetch(token, url, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(fetch(token, "/tasks/filter?projectId=" + projectId, etag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+        
+        // An edit that leaves the counters alone still changes the list
+        exchange(token, HttpMethod.PUT, "/tasks/" + task.getId(),
+                new TaskRequest("renamed", null, null, false, projectId), TaskResponse.class);
+        String afterEdit = assertChanged(token, url, etag);
+        
+        createTask(token, projectId, "second", null, true);
+        String afterCreate = assertChanged(token, url, afterEdit);
+        
+        exchange(token, HttpMethod.DELETE, "/tasks/" + task.getId(), null, Void.class);
+        assertChanged(token, url, afterCreate);
+    }
+    
+    @Test
+    void taskListOfAnotherProjectIsUnaffected() {
+        String token = register();
+        Long watchedId = createProject(token, "Watched").getId();
+        Long otherId = createProject(token, "Other").getId();
+        String url = "/tasks?projectId=" + watchedId;
+        
+        String etag = fetch(token, url, null).getHeaders().getETag();
+        createTask(token, otherId, "elsewhere", null, false);
+        
+        assertThat(fetch(token, url, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+    
+    @Test
+    void staleCachedProjectDoesNotHideTaskChanges() {
+        String token = register();
+        Long projectId = createProject(token, "Cached").getId();
+        String url = "/tasks?projectId=" + projectId;
+        
+        // Puts the project in the second-level cache
+        String etag = fetch(token, url, null).getHeaders().getETag();
+        assertThat(get(token, "/projects/" + projectId + "/progress", ProgressResponse.class).getTotalTasks()).isZero();
+        
+        // What the cache misses when a reader re-caches the row while a counter update commits
+        jdbcTemplate.update("UPDATE projects SET total_tasks = 1, task_stamp = task_stamp + 1 WHERE id = ?", projectId);
+        
+        assertChanged(token, url, etag);
+        assertThat(get(token, "/projects/" + projectId + "/progress", ProgressResponse.class).getTotalTasks()).isEqualTo(1);
+    }
+    
+    private String assertChanged(String token, String url, String previousEtag) {
+        ResponseEntity<String> response = fetch(token, url, previousEtag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(previousEtag);
+        return response.getHeaders().getETag();
+    }
+    
+    private ResponseEntity<String> fetch(String token, String url, String ifNoneMatch) {
+        HttpHeaders headers = headers(token);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.PageResponse;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.TaskResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The paged list endpoints built on the response projections: page contents, totals, and the
+ * description left out on request.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class PagedProjectionIntegrationTest extends IntegrationTestSupport {
+    
+    private static final ParameterizedTypeReference<PageResponse<TaskResponse>> TASK_PAGE =
+            new ParameterizedTypeReference<>() {};
+    
+    private static final ParameterizedTypeReference<PageResponse<ProjectResponse>> PROJECT_PAGE =
+            new ParameterizedTypeReference<>() {};
+    
+    @Test
+    @Tag("user-019")
+    void filterPagesTasksOfProject(CapturedOutput output) {
+        String token = register();
+        Long projectId = createProject(token, "Filter").getId();
+        for (int i = 0; i < 5; i++) {
+            createTask(token, projectId, "task " + i, null, i % 2 == 0);
+        }
+        
+        PageResponse<TaskResponse> page = get(token,
+                "/tasks/filter?projectId=" + projectId + "&size=2&page=1&sortBy=title", TASK_PAGE);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(TaskResponse::getTitle).containsExactly("task 2", "task 3");
+        assertThat(page.getContent()).allSatisfy(task -> assertThat(task.getDescription()).isNotNull());
+        
+        PageResponse<TaskResponse> completed = get(token,
+                "/tasks/filter?projectId=" + projectId + "&completed=true&size=10&includeDescription=false", TASK_PAGE);
+        assertThat(completed.getTotalElements()).isEqualTo(3);
+        assertThat(completed.getContent()).allSatisfy(task -> {
+            assertThat(task.getCompleted()).isTrue();
+            assertThat(task.getDescription()).isNull();
+        });
+        assertNoIgnoredParameters(output);
+    }
+    
+    @Test
+    @Tag("user-019")
+    void paginatedProjectsOfUser(CapturedOutput output) {
+        String token = register();
+        for (int i = 0; i < 3; i++) {
+            createProject(token, "project " + i);
+        }
+        
+        PageResponse<ProjectResponse> page = get(token,
+                "/projects/paginated?size=2&sortBy=title&sortDirection=desc", PROJECT_PAGE);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ProjectResponse::getTitle).containsExactly("project 2", "project 1");
+        assertThat(page.getContent()).allSatisfy(project -> assertThat(project.getDescription()).isNotNull());
+        
+        PageResponse<ProjectResponse> summaries = get(token,
+                "/projects/paginated?size=10&includeDescription=false", PROJECT_PAGE);
+        assertThat(summaries.getContent()).hasSize(3)
+                .allSatisfy(project -> assertThat(project.getDescription()).isNull());
+        assertNoIgnoredParameters(output);
+    }
+    
+    @Test
+    @Tag("user-023")
+    void overdueAndDueBetweenAcrossProjects(CapturedOutput output) {
+        String token = register();
+        Long firstId = createProject(token, "First").getId();
+        Long secondId = createProject(token, "Second").getId();
+        LocalDate today = LocalDate.now();
+        
+        createTask(token, firstId, "late", today.minusDays(3), false);
+        createTask(token, secondId, "later", today.minusDays(1), false);
+        createTask(token, secondId, "late but done", today.minusDays(2), true);
+        createTask(token, firstId, "upcoming", today.plusDays(2), false);
+        
+        PageResponse<TaskResponse> overdue = get(token, "/tasks/overdue?size=1&includeDescription=false", TASK_PAGE);
+        assertThat(overdue.getTotalElements()).isEqualTo(2);
+        assertThat(overdue.getContent()).extracting(TaskResponse::getTitle).containsExactly("late");
+        assertThat(overdue.getContent().get(0).getDescription()).isNull();
+        
+        String range = "/tasks/due?from=" + today.minusDays(5) + "&to=" + today.plusDays(5);
+        PageResponse<TaskResponse> open = get(token, range, TASK_PAGE);
+        assertThat(open.getContent()).extracting(TaskResponse::getTitle).containsExactly("late", "later", "upcoming");
+        assertThat(open.getContent()).allSatisfy(task -> assertThat(task.getDescription()).isNotNull());
+        
+        PageResponse<TaskResponse> all = get(token, range + "&includeCompleted=true&size=2&page=1", TASK_PAGE);
+        assertThat(all.getTotalElements()).isEqualTo(4);
+        assertThat(all.getContent()).extracting(TaskResponse::getTitle).containsExactly("later", "upcoming");
+        assertNoIgnoredParameters(output);
+    }
+    
+    /**
+     * Spring Data only logs parameters its count query doesn't declare, the page still comes back.
+     */
+    private static void assertNoIgnoredParameters(CapturedOutput output) {
+        assertThat(output.getOut()).doesNotContain("Could not locate named parameter");
+    }
+}
@@ -0,0 +1,71 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.ProjectSummaryResponse;
+import com.taskmanager.dtos.TaskResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /projects/dashboard: counters of every project plus, on request, its first tasks.
+ */
+@Tag("user-010")
+class ProjectDashboardIntegrationTest extends IntegrationTestSupport {
+    
+    private static final ParameterizedTypeReference<List<ProjectSummaryResponse>> DASHBOARD =
+            new ParameterizedTypeReference<>() {};
+    
+    @Test
+    void firstTasksPerProjectWithoutDescriptions() {
+        String token = register();
+        Long busyId = createProject(token, "Busy").getId();
+        Long quietId = createProject(token, "Quiet").getId();
+        Long emptyId = createProject(token, "Empty").getId();
+        
+        List<Long> busyTaskIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            busyTaskIds.add(createTask(token, busyId, "busy " + i, null, i == 0).getId());
+        }
+        Long quietTaskId = createTask(token, quietId, "quiet", LocalDate.now().minusDays(1), false).getId();
+        
+        List<ProjectSummaryResponse> dashboard = get(token, "/projects/dashboard?tasksPerProject=3", DASHBOARD);
+        
+        assertThat(dashboard).extracting(ProjectSummaryResponse::getId).containsExactly(busyId, quietId, emptyId);
+        
+        ProjectSummaryResponse busy = dashboard.get(0);
+        assertThat(busy.getTotalTasks()).isEqualTo(5);
+        assertThat(busy.getCompletedTasks()).isEqualTo(1);
+        assertThat(busy.getTasks()).extracting(TaskResponse::getId).containsExactlyElementsOf(busyTaskIds.subList(0, 3));
+        assertThat(busy.getTasks()).allSatisfy(task -> {
+            assertThat(task.getProjectId()).isEqualTo(busyId);
+            assertThat(task.getDescription()).isNull();
+        });
+        
+        ProjectSummaryResponse quiet = dashboard.get(1);
+        assertThat(quiet.getOverdueTasks()).isEqualTo(1);
+        assertThat(quiet.getTasks()).extracting(TaskResponse::getId).containsExactly(quietTaskId);
+        
+        assertThat(dashboard.get(2).getTasks()).isEmpty();
+    }
+    
+    @Test
+    void noTasksUnlessRequested() {
+        String token = register();
+        Long projectId = createProject(token, "Plain").getId();
+        createTask(token, projectId, "hidden", null, false);
+        
+        List<ProjectSummaryResponse> dashboard = get(token, "/projects/dashboard", DASHBOARD);
+        
+        assertThat(dashboard).singleElement().satisfies(summary -> {
+            assertThat(summary.getTotalTasks()).isEqualTo(1);
+            assertThat(summary.getTasks()).isEmpty();
+        });
+    }
+}
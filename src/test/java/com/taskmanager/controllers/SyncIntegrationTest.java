@@ -0,0 +1,95 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.SyncResponse;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.dtos.TombstoneResponse;
+import com.taskmanager.services.SyncCursor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /sync: paging through the changes, deletions, and the grace period that keeps late
+ * committers from being skipped.
+ */
+@Tag("user-021")
+class SyncIntegrationTest extends IntegrationTestSupport {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void pagesThroughChangesThenReportsDeletions() {
+        String token = register();
+        Long projectId = createProject(token, "Synced").getId();
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            taskIds.add(createTask(token, projectId, "task " + i, null, false).getId());
+        }
+        backdate(projectId, "1 hour");
+        
+        SyncResponse first = sync(token, null, 2);
+        assertThat(first.getProjects()).extracting(ProjectResponse::getId).containsExactly(projectId);
+        assertThat(first.getTasks()).extracting(TaskResponse::getId).containsExactly(taskIds.get(0));
+        assertThat(first.isHasMore()).isTrue();
+        
+        SyncResponse second = sync(token, first.getNextCursor(), 2);
+        assertThat(second.getProjects()).isEmpty();
+        assertThat(second.getTasks()).extracting(TaskResponse::getId).containsExactlyElementsOf(taskIds.subList(1, 3));
+        assertThat(second.isHasMore()).isFalse();
+        
+        SyncResponse caughtUp = sync(token, second.getNextCursor(), 2);
+        assertThat(caughtUp.getProjects()).isEmpty();
+        assertThat(caughtUp.getTasks()).isEmpty();
+        
+        exchange(token, HttpMethod.DELETE, "/tasks/" + taskIds.get(0), null, Void.class);
+        SyncResponse afterDelete = sync(token, caughtUp.getNextCursor(), 2);
+        assertThat(afterDelete.getDeleted()).singleElement().satisfies(deleted -> {
+            assertThat(deleted.getEntity()).isEqualTo("task");
+            assertThat(deleted.getId()).isEqualTo(taskIds.get(0));
+        });
+    }
+    
+    @Test
+    void fullPageInsideGracePeriodDoesNotSkipLateCommits() {
+        String token = register();
+        Long projectId = createProject(token, "Recent").getId();
+        for (int i = 0; i < 3; i++) {
+            createTask(token, projectId, "recent " + i, null, false);
+        }
+        
+        SyncResponse page = sync(token, null, 2);
+        assertThat(page.getProjects().size() + page.getTasks().size()).isEqualTo(2);
+        // Everything returned is inside the grace period: the cursor stays before it
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(SyncCursor.decode(page.getNextCursor()).timestamp()).isBefore(Instant.now().minusSeconds(4));
+        
+        // A transaction that commits now, with a row stamped before the ones already returned
+        Long lateId = createTask(token, projectId, "late", null, false).getId();
+        jdbcTemplate.update("UPDATE tasks SET updated_at = (SELECT MIN(updated_at) FROM tasks WHERE project_id = ?) " +
+                "- INTERVAL '1 millisecond' WHERE id = ?", projectId, lateId);
+        
+        SyncResponse next = sync(token, page.getNextCursor(), 10);
+        assertThat(next.getTasks()).extracting(TaskResponse::getId).contains(lateId);
+        assertThat(next.getTasks()).hasSize(4);
+    }
+    
+    private void backdate(Long projectId, String age) {
+        jdbcTemplate.update("UPDATE projects SET updated_at = now() - CAST(? AS INTERVAL) WHERE id = ?", age, projectId);
+        jdbcTemplate.update("UPDATE tasks SET updated_at = now() - CAST(? AS INTERVAL) WHERE project_id = ?", age, projectId);
+    }
+    
+    private SyncResponse sync(String token, String since, int size) {
+        return get(token, "/sync?size=" + size + (since != null ? "&since=" + since : ""), SyncResponse.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.CursorPageResponse;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.repositories.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walking GET /tasks/cursor page by page visits every task exactly once, in order, even when
+ * many tasks share a due date or have none.
+ */
+@Tag("user-005")
+class TaskCursorIntegrationTest extends IntegrationTestSupport {
+    
+    private static final ParameterizedTypeReference<CursorPageResponse<TaskResponse>> TASK_PAGE =
+            new ParameterizedTypeReference<>() {};
+    
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    
+    private String token;
+    private Long projectId;
+    private List<TaskResponse> tasks;
+    
+    @BeforeEach
+    void createTasks() {
+        token = register();
+        projectId = createProject(token, "Cursor").getId();
+        
+        // Ties on both dates, and two tasks without a due date
+        tasks = new ArrayList<>();
+        tasks.add(createTask(token, projectId, "t1", MONDAY.plusDays(1), false));
+        tasks.add(createTask(token, projectId, "t2", MONDAY, false));
+        tasks.add(createTask(token, projectId, "t3", null, true));
+        tasks.add(createTask(token, projectId, "t4", MONDAY, true));
+        tasks.add(createTask(token, projectId, "t5", MONDAY.plusDays(1), false));
+        tasks.add(createTask(token, projectId, "t6", MONDAY, false));
+        tasks.add(createTask(token, projectId, "t7", null, false));
+    }
+    
+    @Test
+    void ascendingDueDateVisitsEveryTaskOnce() {
+        assertThat(walk("dueDate", "asc", 2, null)).containsExactlyElementsOf(expectedIds(false, null));
+    }
+    
+    @Test
+    void descendingDueDateVisitsEveryTaskOnce() {
+        assertThat(walk("dueDate", "desc", 2, null)).containsExactlyElementsOf(expectedIds(true, null));
+    }
+    
+    @Test
+    void completedFilterAppliesOnEveryPage() {
+        assertThat(walk("dueDate", "asc", 1, false)).containsExactlyElementsOf(expectedIds(false, false));
+    }
+    
+    @Test
+    void pageSizeLargerThanResultHasNoNextCursor() {
+        CursorPageResponse<TaskResponse> page = get(token,
+                "/tasks/cursor?projectId=" + projectId + "&sortBy=dueDate&size=50", TASK_PAGE);
+        
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getContent()).hasSize(tasks.size());
+        assertThat(page.getTotalElements()).isEqualTo(tasks.size());
+    }
+    
+    private List<Long> walk(String sortBy, String sortDirection, int size, Boolean completed) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/tasks/cursor?projectId=" + projectId + "&sortBy=" + sortBy +
+                    "&sortDirection=" + sortDirection + "&size=" + size +
+                    (completed != null ? "&completed=" + completed : "") +
+                    (cursor != null ? "&cursor=" + cursor : "");
+            CursorPageResponse<TaskResponse> page = get(token, url, TASK_PAGE);
+            
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(size);
+            page.getContent().forEach(task -> ids.add(task.getId()));
+            cursor = page.getNextCursor();
+            assertThat(page.isHasNext()).isEqualTo(cursor != null);
+            assertThat(ids).as("pages must not repeat tasks").doesNotHaveDuplicates();
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private List<Long> expectedIds(boolean descending, Boolean completed) {
+        Comparator<TaskResponse> order = Comparator
+                .comparing((TaskResponse task) -> task.getDueDate() != null ? task.getDueDate() : KeysetCursor.NULL_DATE)
+                .thenComparing(TaskResponse::getId);
+        return tasks.stream()
+                .filter(task -> completed == null || task.getCompleted().equals(completed))
+                .sorted(descending ? order.reversed() : order)
+                .map(TaskResponse::getId)
+                .toList();
+    }
+}
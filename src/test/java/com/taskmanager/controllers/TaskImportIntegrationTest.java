@@ -0,0 +1,134 @@
+package com.taskmanager.controllers;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.TaskImportError;
+import com.taskmanager.dtos.TaskImportResponse;
+import com.taskmanager.dtos.TaskResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POST /tasks/import with the test profile's limits: 100 characters per CSV field, 200 per record
+ * or NDJSON line, chunks of 50 rows.
+ */
+@Tag("user-009")
+class TaskImportIntegrationTest extends IntegrationTestSupport {
+    
+    private static final ParameterizedTypeReference<List<TaskResponse>> TASKS = new ParameterizedTypeReference<>() {};
+    
+    @Test
+    void oversizeCsvRowsAreRowErrors() {
+        String token = register();
+        Long projectId = createProject(token, "Csv").getId();
+        String csv = "title,description\n"
+                + "first,\n"
+                + "long field,\"" + "x".repeat(150) + "\"\n"
+                + "long record," + "y".repeat(95) + "," + "z".repeat(95) + "\n"
+                + "\"quoted\nlong field\",\"" + "q,\n".repeat(40) + "\"\n"
+                + "last,\n";
+        
+        TaskImportResponse response = importTasks(token, projectId, "text/csv", csv.getBytes(StandardCharsets.UTF_8), false);
+        
+        assertThat(response.getTotalRows()).isEqualTo(5);
+        assertThat(response.getImportedRows()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(TaskImportError::getRow).containsExactly(2L, 3L, 4L);
+        assertThat(response.getErrors()).extracting(TaskImportError::getMessage).containsExactly(
+                "Field longer than 100 characters",
+                "Record longer than 200 characters",
+                "Field longer than 100 characters");
+        assertThat(response.isAborted()).isFalse();
+        assertThat(get(token, "/tasks?projectId=" + projectId, TASKS))
+                .extracting(TaskResponse::getTitle).containsExactly("first", "last");
+    }
+    
+    @Test
+    void oversizeNdjsonLineIsRowError() {
+        String token = register();
+        Long projectId = createProject(token, "Ndjson").getId();
+        String ndjson = "{\"title\":\"first\"}\n"
+                + "{\"title\":\"long\",\"description\":\"" + "x".repeat(250) + "\"}\r\n"
+                + "{\"title\":\"last\"}";
+        
+        TaskImportResponse response = importTasks(token, projectId, "application/x-ndjson",
+                ndjson.getBytes(StandardCharsets.UTF_8), false);
+        
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getImportedRows()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getMessage()).isEqualTo("Line longer than 200 characters");
+        });
+    }
+    
+    @Test
+    void oversizeHeaderFailsTheImport() {
+        String token = register();
+        Long projectId = createProject(token, "Header").getId();
+        String csv = "title," + "x".repeat(150) + "\nfirst,\n";
+        
+        ResponseEntity<String> response = restTemplate.exchange("/tasks/import?projectId=" + projectId, HttpMethod.POST,
+                new HttpEntity<>(csv.getBytes(StandardCharsets.UTF_8), importHeaders(token, "text/csv", false)), String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    
+    @Test
+    void committedChunksSurviveTruncatedUpload() throws IOException {
+        String token = register();
+        Long projectId = createProject(token, "Truncated").getId();
+        StringBuilder csv = new StringBuilder("title\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("task ").append(i).append('\n');
+        }
+        byte[] gzip = gzip(csv.toString().getBytes(StandardCharsets.UTF_8));
+        // Without the trailer every row is read, then the stream fails before the last chunk is written
+        byte[] truncated = Arrays.copyOf(gzip, gzip.length - 8);
+        
+        TaskImportResponse response = importTasks(token, projectId, "text/csv", truncated, true);
+        
+        assertThat(response.isAborted()).isTrue();
+        assertThat(response.getAbortReason()).isNotBlank();
+        assertThat(response.getImportedRows()).isEqualTo(100);
+        assertThat(get(token, "/tasks?projectId=" + projectId, TASKS)).hasSize(100);
+    }
+    
+    private TaskImportResponse importTasks(String token, Long projectId, String contentType, byte[] body, boolean gzip) {
+        ResponseEntity<TaskImportResponse> response = restTemplate.exchange("/tasks/import?projectId=" + projectId,
+                HttpMethod.POST, new HttpEntity<>(body, importHeaders(token, contentType, gzip)), TaskImportResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+    
+    private static HttpHeaders importHeaders(String token, String contentType, boolean gzip) {
+        HttpHeaders headers = headers(token);
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return headers;
+    }
+    
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
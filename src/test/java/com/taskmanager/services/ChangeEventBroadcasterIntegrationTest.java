@@ -0,0 +1,134 @@
+package com.taskmanager.services;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clients whose socket stops taking data can't hold the shared sender threads: a send past the
+ * send timeout closes its stream and the other streams keep getting their events.
+ */
+@Tag("user-020")
+class ChangeEventBroadcasterIntegrationTest extends IntegrationTestSupport {
+    
+    // Stream owners that never register; the broadcaster only needs their ids
+    private static final AtomicLong NEXT_USER_ID = new AtomicLong(1_000_000_000L);
+    
+    @Autowired
+    private ChangeEventBroadcaster broadcaster;
+    
+    @Value("${events.sender-threads}")
+    private int senderThreads;
+    
+    @Value("${events.send-timeout}")
+    private long sendTimeoutMillis;
+    
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void stalledClientsDoNotDelayOtherStreams() throws InterruptedException {
+        CountDownLatch stalledSends = new CountDownLatch(senderThreads);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<StalledEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < senderThreads; i++) {
+            StalledEmitter emitter = new StalledEmitter(stalledSends, unblock);
+            subscribe(NEXT_USER_ID.incrementAndGet(), emitter);
+            stalled.add(emitter);
+        }
+        // Every sender thread is now stuck writing a heartbeat
+        assertThat(stalledSends.await(10, TimeUnit.SECONDS)).isTrue();
+        
+        Long userId = NEXT_USER_ID.incrementAndGet();
+        RecordingEmitter healthy = new RecordingEmitter();
+        subscribe(userId, healthy);
+        broadcaster.onEntityChange(EntityChangeEvent.task(userId, EntityChangeEvent.CREATED, 1L, 1L));
+        assertThat(healthy.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        
+        Thread.sleep(sendTimeoutMillis + 100);
+        broadcaster.closeStalledConnections();
+        
+        assertThat(healthy.sent.poll(10, TimeUnit.SECONDS)).contains("heartbeat");
+        assertThat(healthy.sent.poll(10, TimeUnit.SECONDS)).contains("event:task");
+        
+        // Once the writes give up, the stalled streams are completed and get nothing more
+        unblock.countDown();
+        for (StalledEmitter emitter : stalled) {
+            assertThat(emitter.completed.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(emitter.sends).isEqualTo(1);
+        }
+        
+        // The extra threads are retired with the abandoned sends
+        broadcaster.onEntityChange(EntityChangeEvent.task(userId, EntityChangeEvent.UPDATED, 1L, 1L));
+        assertThat(healthy.sent.poll(10, TimeUnit.SECONDS)).contains("event:task");
+    }
+    
+    private void subscribe(Long userId, SseEmitter emitter) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "stream-" + userId + "@example.com", "");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        broadcaster.subscribe(null, emitter);
+    }
+    
+    /**
+     * A client whose socket is full: the first write blocks until the test lets it fail.
+     */
+    private static final class StalledEmitter extends SseEmitter {
+        private final CountDownLatch entered;
+        private final CountDownLatch unblock;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile int sends;
+        
+        StalledEmitter(CountDownLatch entered, CountDownLatch unblock) {
+            this.entered = entered;
+            this.unblock = unblock;
+        }
+        
+        @Override
+        public synchronized void send(SseEventBuilder event) throws IOException {
+            sends++;
+            entered.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Write timed out");
+        }
+        
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+    
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        
+        @Override
+        public synchronized void send(SseEventBuilder event) {
+            sent.add(event.build().stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+}
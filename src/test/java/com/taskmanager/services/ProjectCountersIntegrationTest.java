@@ -0,0 +1,235 @@
+package com.taskmanager.services;
+
+import com.taskmanager.IntegrationTestSupport;
+import com.taskmanager.dtos.ProgressResponse;
+import com.taskmanager.dtos.ProjectResponse;
+import com.taskmanager.dtos.TaskBatchIdsRequest;
+import com.taskmanager.dtos.TaskBatchItem;
+import com.taskmanager.dtos.TaskBatchRequest;
+import com.taskmanager.dtos.TaskBatchUpdateRequest;
+import com.taskmanager.dtos.TaskRequest;
+import com.taskmanager.dtos.TaskResponse;
+import com.taskmanager.repositories.ProjectRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The denormalized total/completed counters of a project follow every kind of task write,
+ * and the reconciler repairs them when they drift.
+ */
+@Tag("user-003")
+class ProjectCountersIntegrationTest extends IntegrationTestSupport {
+    
+    private static final ParameterizedTypeReference<List<TaskResponse>> TASK_LIST = new ParameterizedTypeReference<>() {};
+    
+    private static final int WRITER_THREADS = 8;
+    private static final int CONCURRENT_WRITES = 200;
+    private static final long WRITER_HOLD_MILLIS = 1000;
+    
+    @Autowired
+    private ProjectCounterReconciler reconciler;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ProjectRepository projectRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void singleTaskWritesAdjustCounters() {
+        String token = register();
+        Long projectId = createProject(token, "Single").getId();
+        
+        TaskResponse open = createTask(token, projectId, "open", null, false);
+        TaskResponse done = createTask(token, projectId, "done", null, true);
+        assertCounters(token, projectId, 2, 1);
+        
+        // Completion toggle
+        exchange(token, HttpMethod.PUT, "/tasks/" + open.getId(),
+                new TaskRequest("open", null, null, true, projectId), TaskResponse.class);
+        assertCounters(token, projectId, 2, 2);
+        
+        exchange(token, HttpMethod.DELETE, "/tasks/" + done.getId(), null, Void.class);
+        assertCounters(token, projectId, 1, 1);
+    }
+    
+    @Test
+    void movingTaskAdjustsBothProjects() {
+        String token = register();
+        Long sourceId = createProject(token, "Source").getId();
+        Long targetId = createProject(token, "Target").getId();
+        TaskResponse task = createTask(token, sourceId, "moving", null, true);
+        
+        exchange(token, HttpMethod.PUT, "/tasks/" + task.getId(),
+                new TaskRequest("moving", null, null, true, targetId), TaskResponse.class);
+        
+        assertCounters(token, sourceId, 0, 0);
+        assertCounters(token, targetId, 1, 1);
+    }
+    
+    @Test
+    void batchWritesAdjustCounters() {
+        String token = register();
+        Long firstId = createProject(token, "First").getId();
+        Long secondId = createProject(token, "Second").getId();
+        
+        ResponseEntity<List<TaskResponse>> created = exchange(token, HttpMethod.POST, "/tasks/batch",
+                new TaskBatchRequest(List.of(
+                        new TaskRequest("a", null, null, false, firstId),
+                        new TaskRequest("b", null, null, true, firstId),
+                        new TaskRequest("c", null, null, false, secondId))),
+                TASK_LIST);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        List<TaskResponse> tasks = created.getBody();
+        assertCounters(token, firstId, 2, 1);
+        assertCounters(token, secondId, 1, 0);
+        
+        // Move "a" to the second project and complete it
+        TaskResponse a = tasks.get(0);
+        exchange(token, HttpMethod.PUT, "/tasks/batch",
+                new TaskBatchUpdateRequest(List.of(new TaskBatchItem(a.getId(), "a", null, null, true, secondId))),
+                TASK_LIST);
+        assertCounters(token, firstId, 1, 1);
+        assertCounters(token, secondId, 2, 1);
+        
+        exchange(token, HttpMethod.PUT, "/tasks/batch/complete",
+                new TaskBatchIdsRequest(tasks.stream().map(TaskResponse::getId).toList(), true), TASK_LIST);
+        assertCounters(token, firstId, 1, 1);
+        assertCounters(token, secondId, 2, 2);
+        
+        ResponseEntity<Void> deleted = exchange(token, HttpMethod.DELETE, "/tasks/batch",
+                new TaskBatchIdsRequest(List.of(a.getId(), tasks.get(1).getId()), null), Void.class);
+        assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertCounters(token, firstId, 0, 0);
+        assertCounters(token, secondId, 1, 1);
+    }
+    
+    @Test
+    void reconcilerRepairsDriftedCounters() {
+        String token = register();
+        ProjectResponse project = createProject(token, "Drifted");
+        createTask(token, project.getId(), "one", LocalDate.now(), true);
+        createTask(token, project.getId(), "two", null, false);
+        Long emptyId = createProject(token, "Empty").getId();
+        
+        jdbcTemplate.update("UPDATE projects SET total_tasks = 7, completed_tasks = 5 WHERE id = ?", project.getId());
+        jdbcTemplate.update("UPDATE projects SET total_tasks = 3, completed_tasks = 1 WHERE id = ?", emptyId);
+        
+        reconciler.reconcile();
+        
+        assertCounters(token, project.getId(), 2, 1);
+        assertCounters(token, emptyId, 0, 0);
+    }
+    
+    /**
+     * A task write holds its project row from the counter update until it commits. A reconciliation
+     * of the drifted row started meanwhile must wait for it and count the new task, not write back
+     * the count it saw before.
+     */
+    @Test
+    void reconcilerWaitsForUncommittedTaskWrite() throws Exception {
+        String token = register();
+        Long projectId = createProject(token, "Racing").getId();
+        createTask(token, projectId, "existing", null, false);
+        jdbcTemplate.update("UPDATE projects SET total_tasks = 7, completed_tasks = 5 WHERE id = ?", projectId);
+        
+        CountDownLatch counterAdjusted = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            // Same order as TaskService: the counter update takes the row lock, the insert follows before commit
+            Future<?> write = writer.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                projectRepository.adjustTaskCounters(projectId, 1, 1);
+                jdbcTemplate.update("INSERT INTO tasks (id, title, completed, project_id) " +
+                        "VALUES (nextval('tasks_seq'), 'concurrent', true, ?)", projectId);
+                counterAdjusted.countDown();
+                sleep(WRITER_HOLD_MILLIS);
+            }));
+            
+            assertThat(counterAdjusted.await(10, TimeUnit.SECONDS)).isTrue();
+            reconciler.reconcile();
+            write.get(10, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+        
+        assertCounters(token, projectId, 2, 1);
+    }
+    
+    @Test
+    void reconcilerRunningDuringBatchInsertsKeepsCountersExact() throws Exception {
+        String token = register();
+        Long firstId = createProject(token, "Busy").getId();
+        Long secondId = createProject(token, "Also busy").getId();
+        
+        ExecutorService writers = Executors.newFixedThreadPool(WRITER_THREADS);
+        try {
+            List<Future<HttpStatusCode>> writes = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_WRITES; i++) {
+                boolean completed = i % 3 == 0;
+                // Batches touch both projects, in either order, to exercise the lock ordering as well
+                List<TaskRequest> batch = i % 2 == 0
+                        ? List.of(new TaskRequest("a" + i, null, null, completed, firstId),
+                                  new TaskRequest("b" + i, null, null, false, secondId))
+                        : List.of(new TaskRequest("b" + i, null, null, completed, secondId),
+                                  new TaskRequest("a" + i, null, null, true, firstId));
+                writes.add(writers.submit(() -> exchange(token, HttpMethod.POST, "/tasks/batch",
+                        new TaskBatchRequest(batch), TASK_LIST).getStatusCode()));
+            }
+            
+            while (writes.stream().anyMatch(write -> !write.isDone())) {
+                reconciler.reconcile();
+            }
+            for (Future<HttpStatusCode> write : writes) {
+                assertThat(write.get(30, TimeUnit.SECONDS)).isEqualTo(HttpStatus.CREATED);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        
+        for (Long projectId : List.of(firstId, secondId)) {
+            Map<String, Object> actual = jdbcTemplate.queryForMap(
+                    "SELECT COUNT(*) AS total, COUNT(*) FILTER (WHERE completed) AS completed " +
+                    "FROM tasks WHERE project_id = ?", projectId);
+            assertThat(((Number) actual.get("total")).intValue()).isEqualTo(CONCURRENT_WRITES);
+            assertCounters(token, projectId, CONCURRENT_WRITES, ((Number) actual.get("completed")).intValue());
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void assertCounters(String token, Long projectId, int total, int completed) {
+        ProgressResponse progress = get(token, "/projects/" + projectId + "/progress", ProgressResponse.class);
+        assertThat(progress.getTotalTasks()).as("total tasks").isEqualTo(total);
+        assertThat(progress.getCompletedTasks()).as("completed tasks").isEqualTo(completed);
+    }
+}
@@ -0,0 +1,32 @@
+-- The schema spring.jpa.hibernate.ddl-auto=update created from the entities before the migrations
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE projects (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    description TEXT,
+    title       VARCHAR(255) NOT NULL,
+    user_id     BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tasks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    completed   BOOLEAN NOT NULL,
+    description TEXT,
+    due_date    DATE,
+    title       VARCHAR(255) NOT NULL,
+    project_id  BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE IF EXISTS projects ADD CONSTRAINT fk_baseline_projects_user FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS tasks ADD CONSTRAINT fk_baseline_tasks_project FOREIGN KEY (project_id) REFERENCES projects;
+
+INSERT INTO users (email, password) VALUES ('old@example.com', 'not-a-hash');
+INSERT INTO projects (title, description, user_id) VALUES ('Old project', NULL, 1);
+INSERT INTO tasks (completed, title, project_id) VALUES (true, 'done', 1), (false, 'open', 1), (false, 'later', 1);